@@ -0,0 +1,124 @@
+package sh.kaden.ics4u.coins;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Works out the coins to give as change, in whole cents.
+ * <p>
+ * The denominations are largest first and end with a 1 cent coin, so every amount can be made exactly. For a coin
+ * system like the euro's, taking as many of each coin as fit before moving to the next gives the fewest coins, so each
+ * count is one division and the time doesn't depend on the amount.
+ */
+public final class ChangeMaker {
+
+    /**
+     * The euro coins given as change, from 2&euro; down to 1 cent.
+     */
+    public static final ChangeMaker EURO = new ChangeMaker(
+            new long[]{200, 100, 50, 20, 10, 5, 1},
+            new String[]{"2\u20AC", "1\u20AC", "50p", "20p", "10p", "5p", "1p"});
+
+    private final long[] values; // cents per coin, largest first
+    private final String[] names;
+
+    /**
+     * Constructs {@code ChangeMaker}.
+     *
+     * @param values the value of each coin in cents, largest first, ending with 1
+     * @param names  the name of each coin
+     * @throws IllegalArgumentException if the values aren't strictly decreasing down to 1, or a name is missing
+     */
+    public ChangeMaker(final long[] values,
+                       final String[] names) {
+        if (values.length == 0 || values.length != names.length || values[values.length - 1] != 1) {
+            throw new IllegalArgumentException("There must be a name for each coin, and the last coin must be 1 cent.");
+        }
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] >= values[i - 1]) {
+                throw new IllegalArgumentException("Coins must be listed from largest to smallest.");
+            }
+        }
+
+        this.values = values.clone();
+        this.names = names.clone();
+    }
+
+    /**
+     * Parses an amount of money, like {@code 12.5}, into cents, rounding half a cent up.
+     *
+     * @param text the amount
+     * @return the amount in cents
+     * @throws NumberFormatException if the text isn't a number
+     * @throws ArithmeticException   if the amount is too large
+     */
+    public static long parseCents(final String text) {
+        return new BigDecimal(text.trim()).movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    /**
+     * Works out the coins for an amount of change.
+     *
+     * @param cents the change in cents, at least zero
+     * @return the number of each coin, in the same order as the denominations
+     * @throws IllegalArgumentException if the change is negative
+     * @throws ArithmeticException      if more coins of one kind are needed than fit in an {@code int}
+     */
+    public int[] change(final long cents) {
+        final int[] counts = new int[this.values.length];
+        this.change(cents, counts);
+        return counts;
+    }
+
+    /**
+     * Works out the coins for an amount of change, without allocating.
+     *
+     * @param cents  the change in cents, at least zero
+     * @param counts where to write the number of each coin, in the same order as the denominations
+     * @throws IllegalArgumentException if the change is negative
+     * @throws ArithmeticException      if more coins of one kind are needed than fit in an {@code int}
+     */
+    public void change(final long cents,
+                       final int[] counts) {
+        if (cents < 0) {
+            throw new IllegalArgumentException("Change can't be negative: " + cents);
+        }
+
+        long remaining = cents;
+        for (int i = 0; i < this.values.length; i++) {
+            final long count = remaining / this.values[i];
+            counts[i] = Math.toIntExact(count);
+            remaining -= count * this.values[i]; // cheaper than a second division for the remainder
+        }
+    }
+
+    /**
+     * Returns the number of denominations.
+     *
+     * @return the denomination count
+     */
+    public int denominations() {
+        return this.values.length;
+    }
+
+    /**
+     * Returns the value of a coin.
+     *
+     * @param denomination the index of the coin, largest first
+     * @return the value in cents
+     */
+    public long value(final int denomination) {
+        return this.values[denomination];
+    }
+
+    /**
+     * Returns the name of a coin.
+     *
+     * @param denomination the index of the coin, largest first
+     * @return the name, like {@code 50p}
+     */
+    public String name(final int denomination) {
+        return this.names[denomination];
+    }
+
+}
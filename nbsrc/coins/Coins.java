@@ -6,9 +6,7 @@ package sh.kaden.ics4u.coins;
 
 import java.awt.Color;
 import java.text.NumberFormat;
-import java.util.HashMap;
 import java.util.Locale;
-import java.util.Map;
 
 /**
  *
@@ -91,8 +89,8 @@ public class Coins extends javax.swing.JFrame {
         final String amountText = this.amountField.getText();
         
         try {
-            final double cost = Double.parseDouble(costText);
-            final double amount = Double.parseDouble(amountText);
+            final long cost = ChangeMaker.parseCents(costText);
+            final long amount = ChangeMaker.parseCents(amountText);
             
             if (cost > amount) {
                 this.changeLabel.setText("Bro u got robbed");
@@ -100,17 +98,18 @@ public class Coins extends javax.swing.JFrame {
                 return;
             }
             
-            final double change = amount - cost;
+            final long change = Math.subtractExact(amount, cost);
 
-            this.changeLabel.setText("Change: "+MONEY_FORMAT.format(change));
+            this.changeLabel.setText("Change: "+MONEY_FORMAT.format(change / 100.0));
             this.changeLabel.setForeground(Color.BLACK);
-            final Map<String, Integer> coins =  this.calculateChange(change * 100);
-            this.coinsTextArea.setText("");
-            String coinText = "";
-            for (final Map.Entry<String, Integer> entry : coins.entrySet()) {
-                coinText += entry.getValue() + "x "+entry.getKey() + " coin\n";
+            final int[] coins = ChangeMaker.EURO.change(change);
+            final StringBuilder coinText = new StringBuilder();
+            for (int i = 0; i < coins.length; i++) {
+                if (coins[i] > 0) {
+                    coinText.append(coins[i]).append("x ").append(ChangeMaker.EURO.name(i)).append(" coin\n");
+                }
             }
-            this.coinsTextArea.setText(coinText);
+            this.coinsTextArea.setText(coinText.toString());
             
         } catch (final Exception e) {
             this.changeLabel.setText("Cost and amount must be numbers.");
@@ -118,34 +117,6 @@ public class Coins extends javax.swing.JFrame {
         }
     }//GEN-LAST:event_calculateButtonActionPerformed
 
-    /**
-     * Calculates the number of coins required for the provided change value.
-     * The map will contain a key for each coin type, with a value for how
-     * many coins should be given.
-     */
-    private Map<String, Integer> calculateChange(double change) {
-        final Map<String, Integer> changeMap = new HashMap<>();
-        
-        while (change > 0) {
-            System.out.println("change is "+change);
-            if (change >= 200) {change -= 200; this.addCoin("2€", changeMap); continue;}
-            if (change >= 100) {change -= 100; this.addCoin("1€", changeMap); continue;}
-            if (change >= 50) {change -= 50; this.addCoin("50p", changeMap); continue;}
-            if (change >= 20) {change -= 20; this.addCoin("20p", changeMap); continue;}
-            if (change >= 10) {change -= 10; this.addCoin("10p", changeMap); continue;}
-            if (change >= 5) {change -= 5; this.addCoin("5p", changeMap); continue;}
-            if (change >= 1) {change -= 1; this.addCoin("1p", changeMap); continue;}
-        }
-        
-        return changeMap;
-    }
-    
-    private void addCoin(final String coin,
-                         final Map<String, Integer> coinMap) {
-        System.out.println("adding a "+coin+" to map");
-        coinMap.put(coin, coinMap.getOrDefault(coin, 0) + 1);
-    }
-    
     /**
      * @param args the command line arguments
      */
@@ -133,7 +133,7 @@ public class WaterTank extends javax.swing.JFrame {
         }
         
         final double volume = length * width * height;
-        final double area = (length * width) + 2 * (length * width) + 2 * (length * width);
+        final double area = (length * width) + 2 * (length * height) + 2 * (width * height); // the tank has no lid
         this.volumeOutput.setText(Double.toString(volume));
         this.areaOutput.setText(Double.toString(area));
         this.showError(null);
@@ -0,0 +1,177 @@
+package sh.kaden.ics4u.bench;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A small benchmark harness in the style of JMH.
+ * <p>
+ * Every benchmark is run once per input size: first for a number of warmup iterations so the JIT can compile it, then
+ * for a number of measured iterations. Each iteration calls the benchmark in a loop for a fixed amount of time, and
+ * reports the average time per operation along with the bytes allocated per operation, read from the same per-thread
+ * allocation counter that JMH's GC profiler uses. Results are summed into a volatile sink, so the JIT can't remove a
+ * benchmark as dead code.
+ */
+public final class BenchmarkRunner {
+
+    private final List<Entry> entries;
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final long iterationNanos;
+    private volatile long sink; // consumes benchmark results so they can't be optimized away
+
+    /**
+     * Constructs {@code BenchmarkRunner}.
+     *
+     * @param warmupIterations      the number of unmeasured iterations per benchmark and size
+     * @param measurementIterations the number of measured iterations per benchmark and size
+     * @param iterationMillis       how long each iteration runs, in milliseconds
+     */
+    public BenchmarkRunner(final int warmupIterations,
+                           final int measurementIterations,
+                           final long iterationMillis) {
+        this.entries = new ArrayList<>();
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.iterationNanos = iterationMillis * 1_000_000;
+    }
+
+    /**
+     * Adds a benchmark.
+     *
+     * @param name      the name of the benchmark
+     * @param sizes     the input sizes to run the benchmark with
+     * @param benchmark creates the operation for an input size
+     */
+    public void add(final String name,
+                    final int[] sizes,
+                    final Benchmark benchmark) {
+        this.entries.add(new Entry(name, sizes, benchmark));
+    }
+
+    /**
+     * Runs every benchmark whose name contains {@code filter}, printing a row per benchmark and size.
+     *
+     * @param filter the filter, or an empty string to run everything
+     */
+    public void run(final String filter) {
+        System.out.printf("%-48s %10s %16s %14s\n", "Benchmark", "(size)", "ns/op", "B/op");
+        for (final Entry entry : this.entries) {
+            if (!entry.name.contains(filter)) {
+                continue;
+            }
+
+            for (final int size : entry.sizes) {
+                final Operation operation = entry.benchmark.setup(size);
+                for (int i = 0; i < this.warmupIterations; i++) {
+                    this.iteration(operation);
+                }
+
+                double nanos = 0;
+                double bytes = 0;
+                for (int i = 0; i < this.measurementIterations; i++) {
+                    final double[] result = this.iteration(operation);
+                    nanos += result[0];
+                    bytes += result[1];
+                }
+
+                System.out.printf(Locale.ROOT, "%-48s %10d %16.3f %14.1f\n", entry.name, size,
+                        nanos / this.measurementIterations, bytes / this.measurementIterations);
+            }
+        }
+    }
+
+    /**
+     * Runs an operation for one iteration.
+     *
+     * @param operation the operation
+     * @return the nanoseconds and bytes allocated per operation
+     */
+    private double[] iteration(final Operation operation) {
+        long operations = 0;
+        long batch = 1;
+        long result = 0;
+        final long allocatedBefore = allocatedBytes();
+        final long start = System.nanoTime();
+        long elapsed;
+        do {
+            // operations run in growing batches, so reading the clock doesn't dominate very short operations
+            for (long i = 0; i < batch; i++) {
+                result += operation.run();
+            }
+            operations += batch;
+            batch = Math.min(batch * 2, 1 << 20);
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < this.iterationNanos);
+        final long allocated = allocatedBytes() - allocatedBefore;
+        this.sink += result;
+
+        return new double[]{(double) elapsed / operations, (double) allocated / operations};
+    }
+
+    /**
+     * Returns the number of bytes the current thread has allocated, or 0 if the JVM doesn't track it.
+     *
+     * @return the allocated bytes
+     */
+    private static long allocatedBytes() {
+        final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    /**
+     * Creates the operation to benchmark for an input size.
+     */
+    @FunctionalInterface
+    public interface Benchmark {
+
+        /**
+         * Prepares the input for {@code size} and returns the operation to measure.
+         *
+         * @param size the input size
+         * @return the operation
+         */
+        Operation setup(int size);
+
+    }
+
+    /**
+     * A single benchmarked operation.
+     */
+    @FunctionalInterface
+    public interface Operation {
+
+        /**
+         * Runs the operation once.
+         *
+         * @return a value derived from the result, which is consumed so the work can't be skipped
+         */
+        long run();
+
+    }
+
+    /**
+     * A registered benchmark.
+     */
+    private static final class Entry {
+
+        private final String name;
+        private final int[] sizes;
+        private final Benchmark benchmark;
+
+        private Entry(final String name,
+                      final int[] sizes,
+                      final Benchmark benchmark) {
+            this.name = name;
+            this.sizes = sizes;
+            this.benchmark = benchmark;
+        }
+
+    }
+
+}
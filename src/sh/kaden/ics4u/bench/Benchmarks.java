@@ -0,0 +1,363 @@
+package sh.kaden.ics4u.bench;
+
+import sh.kaden.ics4u.geometry.Cone;
+import sh.kaden.ics4u.geometry.ConeSolver;
+import sh.kaden.ics4u.geometry.Cuboid;
+import sh.kaden.ics4u.geometry.CuboidSolver;
+import sh.kaden.ics4u.geometry.SolidBatch;
+import sh.kaden.ics4u.lotto649.TicketIndex;
+import sh.kaden.ics4u.lotto649.TicketMask;
+import sh.kaden.ics4u.lotto649.TicketSampler;
+import sh.kaden.ics4u.paint.CanMixOptimizer;
+import sh.kaden.ics4u.paint.PaintEstimator;
+import sh.kaden.ics4u.paint.PaintTool;
+import sh.kaden.ics4u.piglatin.ConversionCache;
+import sh.kaden.ics4u.piglatin.PigLatinConverter;
+import sh.kaden.ics4u.piglatin.PigLatinDialect;
+import sh.kaden.ics4u.piglatin.Vowels;
+import sh.kaden.ics4u.pizza.PizzaShopCalculator;
+import sh.kaden.ics4u.volume.ConeProgram;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Benchmarks the calculation hot paths of the programs in this project.
+ * <p>
+ * The size parameter is the amount of work done by one operation: the number of tickets, words, shapes or toppings.
+ */
+public class Benchmarks {
+
+    private static final long SEED = 42;
+    private static final int BRUTE_FORCE_STEPS = 100; // grid points per dimension searched by the brute-force solvers
+
+    /**
+     * The command-line entrypoint for {@code Benchmarks}.
+     *
+     * @param args the program arguments: optionally a filter on benchmark names, and {@code --quick} for short runs
+     */
+    public static void main(final String[] args) {
+        String filter = "";
+        boolean quick = false;
+        for (final String arg : args) {
+            if (arg.equals("--quick")) {
+                quick = true;
+            } else {
+                filter = arg;
+            }
+        }
+
+        final BenchmarkRunner runner = quick ? new BenchmarkRunner(1, 2, 200) : new BenchmarkRunner(3, 5, 1000);
+        addLottoBenchmarks(runner);
+        addPigLatinBenchmarks(runner);
+        addGeometryBenchmarks(runner);
+        addSolverBenchmarks(runner);
+        addPizzaBenchmarks(runner);
+        runner.run(filter);
+    }
+
+    /**
+     * Adds the ticket generation and scoring benchmarks for {@link TicketSampler}, {@link TicketMask} and
+     * {@link TicketIndex}.
+     *
+     * @param runner the runner
+     */
+    private static void addLottoBenchmarks(final BenchmarkRunner runner) {
+        final int[] sizes = {100, 10_000, 1_000_000};
+
+        runner.add("TicketSampler.next", sizes, size -> {
+            final TicketSampler sampler = new TicketSampler();
+            final SplittableRandom random = new SplittableRandom(SEED);
+            final int[] numbers = new int[sampler.count()];
+            return () -> {
+                long result = 0;
+                for (int i = 0; i < size; i++) {
+                    sampler.next(random, numbers);
+                    result += numbers[0];
+                }
+                return result;
+            };
+        });
+
+        runner.add("TicketMask.matches", sizes, size -> {
+            final long[] tickets = randomTickets(size);
+            final long winning = tickets[0];
+            return () -> {
+                long result = 0;
+                for (final long ticket : tickets) {
+                    result += TicketMask.matches(ticket, winning);
+                }
+                return result;
+            };
+        });
+
+        runner.add("TicketIndex.matchCounts", sizes, size -> {
+            final long[] tickets = randomTickets(size);
+            final TicketIndex index = new TicketIndex(49);
+            for (final long ticket : tickets) {
+                index.add(ticket);
+            }
+            final long winning = tickets[0];
+            return () -> index.matchCounts(winning)[3];
+        });
+    }
+
+    private static void addPigLatinBenchmarks(final BenchmarkRunner runner) {
+        runner.add("PigLatinConverter.convert", new int[]{4, 16, 64}, size -> {
+            final StringBuilder word = new StringBuilder();
+            for (int i = 0; i < size; i++) {
+                word.append(i < size / 2 ? 's' : 'a'); // the first vowel is halfway through the word
+            }
+            final String input = word.toString();
+            return () -> PigLatinConverter.convert(input).length();
+        });
+
+        runner.add("ConversionCache.convert", new int[]{4, 16, 64}, size -> {
+            final StringBuilder word = new StringBuilder();
+            for (int i = 0; i < size; i++) {
+                word.append(i < size / 2 ? 's' : 'a');
+            }
+            final String input = word.toString();
+            final ConversionCache cache = new ConversionCache(PigLatinDialect.CLASSIC, 1024);
+            return () -> cache.convert(input).length();
+        });
+
+        runner.add("Vowels.indexOfVowel", new int[]{4, 16, 64}, size -> {
+            final char[] word = new char[size];
+            for (int i = 0; i < size; i++) {
+                word[i] = i < size / 2 ? 's' : 'a';
+            }
+            return () -> Vowels.indexOfVowel(word, 0, size);
+        });
+    }
+
+    private static void addGeometryBenchmarks(final BenchmarkRunner runner) {
+        final int[] sizes = {1, 1_000, 100_000};
+
+        runner.add("ConeProgram.volume", sizes, size -> {
+            final double[] radii = randomDoubles(size, 1);
+            final double[] heights = randomDoubles(size, 2);
+            return () -> {
+                double result = 0;
+                for (int i = 0; i < size; i++) {
+                    result += ConeProgram.volume(radii[i], heights[i]);
+                }
+                return Double.doubleToLongBits(result);
+            };
+        });
+
+        runner.add("ConeProgram.surfaceArea", sizes, size -> {
+            final double[] radii = randomDoubles(size, 3);
+            final double[] heights = randomDoubles(size, 4);
+            return () -> {
+                double result = 0;
+                for (int i = 0; i < size; i++) {
+                    result += ConeProgram.surfaceArea(radii[i], heights[i]);
+                }
+                return Double.doubleToLongBits(result);
+            };
+        });
+
+        runner.add("ConeProgram.calculate (batch)", sizes, size -> {
+            final double[] radii = randomDoubles(size, 3);
+            final double[] heights = randomDoubles(size, 4);
+            final double[] volumes = new double[size];
+            final double[] surfaceAreas = new double[size];
+            return () -> {
+                ConeProgram.calculate(radii, heights, volumes, surfaceAreas);
+                return Double.doubleToLongBits(volumes[size - 1] + surfaceAreas[size - 1]);
+            };
+        });
+
+        runner.add("PaintTool.Cuboid.area", sizes, size -> {
+            final double[] lengths = randomDoubles(size, 5);
+            final double[] widths = randomDoubles(size, 6);
+            final double[] heights = randomDoubles(size, 7);
+            final PaintTool.Cuboid[] cuboids = new PaintTool.Cuboid[size];
+            for (int i = 0; i < size; i++) {
+                cuboids[i] = new PaintTool.Cuboid("cuboid " + i, lengths[i], widths[i], heights[i]);
+            }
+            return () -> {
+                double result = 0;
+                for (final PaintTool.Cuboid cuboid : cuboids) {
+                    result += cuboid.area();
+                }
+                return Double.doubleToLongBits(result);
+            };
+        });
+
+        runner.add("PaintEstimator.paintableAreas", sizes, size -> {
+            final double[] lengths = randomDoubles(size, 13);
+            final double[] widths = randomDoubles(size, 14);
+            final double[] heights = randomDoubles(size, 15);
+            final PaintEstimator estimator = new PaintEstimator();
+            for (int i = 0; i < size; i++) {
+                final int room = estimator.addRoom(lengths[i], widths[i], heights[i]);
+                for (int opening = 0; opening < 3; opening++) {
+                    estimator.addOpening(room, 1, 1);
+                }
+            }
+            final double[] paintableAreas = new double[size];
+            return () -> Double.doubleToLongBits(estimator.paintableAreas(paintableAreas));
+        });
+
+        runner.add("CanMixOptimizer.cheapest", sizes, size -> {
+            final double[] areas = randomDoubles(size, 16);
+            for (int i = 0; i < size; i++) {
+                areas[i] *= 1000; // contractor orders of up to 100000 m^2
+            }
+            final CanMixOptimizer cans = new CanMixOptimizer(new double[]{3.79, 18.93, 0.95},
+                    new double[]{45.99, 199.00, 15.49});
+            final int[] counts = new int[cans.cans()];
+            return () -> {
+                long result = 0;
+                for (final double area : areas) {
+                    result += cans.cheapest(area, counts);
+                }
+                return result;
+            };
+        });
+
+        runner.add("SolidBatch.surfaceAreas", sizes, size -> {
+            final double[] lengths = randomDoubles(size, 8);
+            final double[] widths = randomDoubles(size, 9);
+            final double[] heights = randomDoubles(size, 10);
+            final SolidBatch batch = new SolidBatch(size);
+            for (int i = 0; i < size; i++) {
+                switch (i * 4 / size) { // four runs, one of each kind
+                    case 0:
+                        batch.addCuboid(lengths[i], widths[i], heights[i]);
+                        break;
+                    case 1:
+                        batch.addCone(lengths[i], heights[i]);
+                        break;
+                    case 2:
+                        batch.addCylinder(lengths[i], heights[i]);
+                        break;
+                    default:
+                        batch.addSphere(lengths[i]);
+                        break;
+                }
+            }
+            final double[] surfaceAreas = new double[size];
+            return () -> {
+                batch.surfaceAreas(surfaceAreas);
+                return Double.doubleToLongBits(surfaceAreas[size - 1]);
+            };
+        });
+    }
+
+    /**
+     * Adds the benchmarks of the inverse solvers behind {@code --solve}, each next to a brute-force grid search for
+     * the same targets that it should beat.
+     *
+     * @param runner the runner
+     */
+    private static void addSolverBenchmarks(final BenchmarkRunner runner) {
+        final int[] sizes = {1, 100, 1_000};
+        final ConeSolver coneSolver = new ConeSolver(0, 50, 0, 50);
+        final CuboidSolver cuboidSolver = new CuboidSolver(0, 50, 0, 50, 0, 50);
+
+        runner.add("ConeSolver.solve", sizes, size -> {
+            final double[] volumes = randomDoubles(size, 11);
+            final double[][] dimensions = new double[2][size];
+            return () -> {
+                coneSolver.solve(volumes, dimensions, 0, size);
+                return Double.doubleToLongBits(dimensions[0][size - 1]);
+            };
+        });
+
+        runner.add("ConeSolver.solve (parallel)", sizes, size -> {
+            final double[] volumes = randomDoubles(size, 11);
+            final double[][] dimensions = new double[2][size];
+            return () -> {
+                coneSolver.solve(ForkJoinPool.commonPool(), volumes, dimensions, 0, size);
+                return Double.doubleToLongBits(dimensions[0][size - 1]);
+            };
+        });
+
+        runner.add("Cone brute force (" + BRUTE_FORCE_STEPS + " radii)", sizes, size -> {
+            final double[] volumes = randomDoubles(size, 11);
+            return () -> {
+                double result = 0;
+                for (final double volume : volumes) {
+                    double best = Double.POSITIVE_INFINITY;
+                    for (int i = 1; i <= BRUTE_FORCE_STEPS; i++) {
+                        final double radius = 50.0 * i / BRUTE_FORCE_STEPS;
+                        final double height = 3 * volume / (Math.PI * radius * radius);
+                        if (height <= 50) {
+                            best = Math.min(best, Cone.surfaceArea(radius, height));
+                        }
+                    }
+                    result += best;
+                }
+                return Double.doubleToLongBits(result);
+            };
+        });
+
+        runner.add("CuboidSolver.solve", sizes, size -> {
+            final double[] volumes = randomDoubles(size, 12);
+            final double[][] dimensions = new double[3][size];
+            return () -> {
+                cuboidSolver.solve(volumes, dimensions, 0, size);
+                return Double.doubleToLongBits(dimensions[0][size - 1]);
+            };
+        });
+
+        runner.add("Cuboid brute force (" + BRUTE_FORCE_STEPS + "^2 sides)", sizes, size -> {
+            final double[] volumes = randomDoubles(size, 12);
+            return () -> {
+                double result = 0;
+                for (final double volume : volumes) {
+                    double best = Double.POSITIVE_INFINITY;
+                    for (int i = 1; i <= BRUTE_FORCE_STEPS; i++) {
+                        final double length = 50.0 * i / BRUTE_FORCE_STEPS;
+                        for (int j = 1; j <= BRUTE_FORCE_STEPS; j++) {
+                            final double width = 50.0 * j / BRUTE_FORCE_STEPS;
+                            final double height = volume / (length * width);
+                            if (height <= 50) {
+                                best = Math.min(best, Cuboid.surfaceArea(length, width, height));
+                            }
+                        }
+                    }
+                    result += best;
+                }
+                return Double.doubleToLongBits(result);
+            };
+        });
+    }
+
+    private static void addPizzaBenchmarks(final BenchmarkRunner runner) {
+        runner.add("PizzaShopCalculator.calculateMaterials", new int[]{6, 64, 1024}, size -> {
+            final SplittableRandom random = new SplittableRandom(SEED);
+            final int[] counts = new int[size];
+            final double[] costs = new double[size];
+            for (int i = 0; i < size; i++) {
+                counts[i] = random.nextInt(4);
+                costs[i] = 0.3;
+            }
+            return () -> Double.doubleToLongBits(PizzaShopCalculator.calculateMaterials(12, counts, costs));
+        });
+    }
+
+    private static long[] randomTickets(final int count) {
+        final TicketSampler sampler = new TicketSampler();
+        final SplittableRandom random = new SplittableRandom(SEED);
+        final long[] tickets = new long[count];
+        for (int i = 0; i < count; i++) {
+            tickets[i] = sampler.nextMask(random);
+        }
+        return tickets;
+    }
+
+    private static double[] randomDoubles(final int count,
+                                          final long seed) {
+        final SplittableRandom random = new SplittableRandom(seed);
+        final double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = 1 + random.nextDouble() * 99;
+        }
+        return values;
+    }
+
+}
@@ -0,0 +1,42 @@
+package sh.kaden.ics4u.geometry;
+
+/**
+ * Checks the bounds given to a {@link VolumeSolver}.
+ */
+final class Bounds {
+
+    private Bounds() {
+    }
+
+    /**
+     * Checks that a dimension's bounds allow some positive value.
+     *
+     * @param name the name of the dimension, for the error message
+     * @param min  the smallest value allowed, at least zero
+     * @param max  the largest value allowed, which may be infinite
+     * @throws IllegalArgumentException if the bounds are invalid
+     */
+    static void check(final String name,
+                      final double min,
+                      final double max) {
+        if (!(min >= 0) || Double.isInfinite(min) || !(max > 0) || max < min) {
+            throw new IllegalArgumentException("The " + name + " must be between " + min + " and " + max
+                    + ", which isn't a valid range.");
+        }
+    }
+
+    /**
+     * Limits a value to a range.
+     *
+     * @param value the value
+     * @param min   the smallest value allowed
+     * @param max   the largest value allowed
+     * @return the value, or the nearest bound if it is outside the range
+     */
+    static double clamp(final double value,
+                        final double min,
+                        final double max) {
+        return Math.min(Math.max(value, min), max);
+    }
+
+}
@@ -0,0 +1,109 @@
+package sh.kaden.ics4u.geometry;
+
+/**
+ * A right circular cone, including its base.
+ */
+public final class Cone implements Solid {
+
+    private final double radius;
+    private final double height;
+
+    /**
+     * Constructs {@code Cone}.
+     *
+     * @param radius the radius of the base
+     * @param height the height
+     */
+    public Cone(final double radius,
+                final double height) {
+        this.radius = radius;
+        this.height = height;
+    }
+
+    @Override
+    public double volume() {
+        return volume(this.radius, this.height);
+    }
+
+    @Override
+    public double surfaceArea() {
+        return surfaceArea(this.radius, this.height);
+    }
+
+    /**
+     * Calculates the volume of a cone.
+     *
+     * @param radius the radius
+     * @param height the height
+     * @return the volume
+     */
+    public static double volume(final double radius,
+                                final double height) {
+        return (Math.PI * (radius * radius) * height) / 3;
+    }
+
+    /**
+     * Calculates the surface area of a cone: its base plus its lateral surface.
+     *
+     * @param radius the radius
+     * @param height the height
+     * @return the surface area
+     */
+    public static double surfaceArea(final double radius,
+                                     final double height) {
+        final double radiusSquared = radius * radius;
+        final double slantSquared = radiusSquared + height * height;
+
+        return (Math.PI * radiusSquared) + Math.PI * radius * Math.sqrt(slantSquared);
+    }
+
+    /**
+     * Calculates the volumes of many cones.
+     * <p>
+     * The loop has no calls or branches, so the JIT can compile it to SIMD instructions. The results are the same as
+     * calling {@link #volume(double, double)} for each cone.
+     *
+     * @param radii   the radius of each cone
+     * @param heights the height of each cone
+     * @param volumes where to write the volume of each cone
+     * @param offset  the index of the first cone
+     * @param count   the number of cones
+     */
+    public static void volumes(final double[] radii,
+                               final double[] heights,
+                               final double[] volumes,
+                               final int offset,
+                               final int count) {
+        final int end = offset + count;
+        for (int i = offset; i < end; i++) {
+            final double radius = radii[i];
+            volumes[i] = (Math.PI * (radius * radius) * heights[i]) / 3;
+        }
+    }
+
+    /**
+     * Calculates the surface areas of many cones.
+     * <p>
+     * The results are the same as calling {@link #surfaceArea(double, double)} for each cone.
+     *
+     * @param radii        the radius of each cone
+     * @param heights      the height of each cone
+     * @param surfaceAreas where to write the surface area of each cone
+     * @param offset       the index of the first cone
+     * @param count        the number of cones
+     */
+    public static void surfaceAreas(final double[] radii,
+                                    final double[] heights,
+                                    final double[] surfaceAreas,
+                                    final int offset,
+                                    final int count) {
+        final int end = offset + count;
+        for (int i = offset; i < end; i++) {
+            final double radius = radii[i];
+            final double height = heights[i];
+            final double radiusSquared = radius * radius;
+            surfaceAreas[i] = (Math.PI * radiusSquared) + Math.PI * radius * Math.sqrt(radiusSquared + height * height);
+        }
+    }
+
+}
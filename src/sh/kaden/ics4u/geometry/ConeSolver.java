@@ -0,0 +1,82 @@
+package sh.kaden.ics4u.geometry;
+
+/**
+ * Finds the radius and height of the cone with the least surface area for a volume.
+ * <p>
+ * For a fixed volume {@code V}, the height is {@code 3V / (&pi; r&sup2;)}, and the surface area along that curve falls
+ * to a single minimum at {@code h = 2&radic;2 r} before rising again. So the answer has a closed form: take that
+ * minimum, and if its radius is outside the range the bounds allow for this volume, use the nearest end of the range.
+ */
+public final class ConeSolver implements VolumeSolver {
+
+    private static final double OPTIMAL_RATIO = 2 * Math.sqrt(2); // height over radius at the minimum
+
+    private final double minRadius;
+    private final double maxRadius;
+    private final double minHeight;
+    private final double maxHeight;
+
+    /**
+     * Constructs {@code ConeSolver}.
+     *
+     * @param minRadius the smallest radius allowed
+     * @param maxRadius the largest radius allowed, which may be infinite
+     * @param minHeight the smallest height allowed
+     * @param maxHeight the largest height allowed, which may be infinite
+     * @throws IllegalArgumentException if a range is invalid
+     */
+    public ConeSolver(final double minRadius,
+                      final double maxRadius,
+                      final double minHeight,
+                      final double maxHeight) {
+        Bounds.check("radius", minRadius, maxRadius);
+        Bounds.check("height", minHeight, maxHeight);
+
+        this.minRadius = minRadius;
+        this.maxRadius = maxRadius;
+        this.minHeight = minHeight;
+        this.maxHeight = maxHeight;
+    }
+
+    /**
+     * Constructs {@code ConeSolver} with no bounds.
+     */
+    public ConeSolver() {
+        this(0, Double.POSITIVE_INFINITY, 0, Double.POSITIVE_INFINITY);
+    }
+
+    @Override
+    public int dimensions() {
+        return 2;
+    }
+
+    /**
+     * Finds the radius and height for a target volume.
+     *
+     * @param volume     the target volume
+     * @param dimensions where to write the answer: the radius in the first array and the height in the second
+     * @param index      the index to write the answer at
+     * @return true if the volume could be reached, false if not
+     */
+    @Override
+    public boolean solve(final double volume,
+                         final double[][] dimensions,
+                         final int index) {
+        final double k = 3 * volume / Math.PI; // r squared times h
+
+        // the radii whose matching height is within bounds
+        final double low = Math.max(this.minRadius, Math.sqrt(k / this.maxHeight));
+        final double high = Math.min(this.maxRadius, Math.sqrt(k / this.minHeight));
+        if (!(volume > 0) || Double.isInfinite(volume) || !(low <= high) || !(high > 0)) {
+            dimensions[0][index] = Double.NaN;
+            dimensions[1][index] = Double.NaN;
+            return false;
+        }
+
+        final double radius = Bounds.clamp(Math.cbrt(k / OPTIMAL_RATIO), Math.max(low, Double.MIN_NORMAL), high);
+        dimensions[0][index] = radius;
+        dimensions[1][index] = Bounds.clamp(k / (radius * radius), this.minHeight, this.maxHeight);
+        return true;
+    }
+
+}
@@ -0,0 +1,112 @@
+package sh.kaden.ics4u.geometry;
+
+/**
+ * A rectangular box.
+ */
+public final class Cuboid implements Solid {
+
+    private final double length;
+    private final double width;
+    private final double height;
+
+    /**
+     * Constructs {@code Cuboid}.
+     *
+     * @param length the length
+     * @param width  the width
+     * @param height the height
+     */
+    public Cuboid(final double length,
+                  final double width,
+                  final double height) {
+        this.length = length;
+        this.width = width;
+        this.height = height;
+    }
+
+    @Override
+    public double volume() {
+        return volume(this.length, this.width, this.height);
+    }
+
+    @Override
+    public double surfaceArea() {
+        return surfaceArea(this.length, this.width, this.height);
+    }
+
+    /**
+     * Calculates the volume of a cuboid.
+     *
+     * @param length the length
+     * @param width  the width
+     * @param height the height
+     * @return the volume
+     */
+    public static double volume(final double length,
+                                final double width,
+                                final double height) {
+        return length * width * height;
+    }
+
+    /**
+     * Calculates the total surface area of a cuboid.
+     *
+     * @param length the length
+     * @param width  the width
+     * @param height the height
+     * @return the surface area
+     */
+    public static double surfaceArea(final double length,
+                                     final double width,
+                                     final double height) {
+        return 2 * (length * width + width * height + length * height);
+    }
+
+    /**
+     * Calculates the volumes of many cuboids.
+     *
+     * @param lengths the length of each cuboid
+     * @param widths  the width of each cuboid
+     * @param heights the height of each cuboid
+     * @param volumes where to write the volume of each cuboid
+     * @param offset  the index of the first cuboid
+     * @param count   the number of cuboids
+     */
+    public static void volumes(final double[] lengths,
+                               final double[] widths,
+                               final double[] heights,
+                               final double[] volumes,
+                               final int offset,
+                               final int count) {
+        final int end = offset + count;
+        for (int i = offset; i < end; i++) {
+            volumes[i] = lengths[i] * widths[i] * heights[i];
+        }
+    }
+
+    /**
+     * Calculates the total surface areas of many cuboids.
+     *
+     * @param lengths      the length of each cuboid
+     * @param widths       the width of each cuboid
+     * @param heights      the height of each cuboid
+     * @param surfaceAreas where to write the surface area of each cuboid
+     * @param offset       the index of the first cuboid
+     * @param count        the number of cuboids
+     */
+    public static void surfaceAreas(final double[] lengths,
+                                    final double[] widths,
+                                    final double[] heights,
+                                    final double[] surfaceAreas,
+                                    final int offset,
+                                    final int count) {
+        final int end = offset + count;
+        for (int i = offset; i < end; i++) {
+            final double length = lengths[i];
+            final double width = widths[i];
+            final double height = heights[i];
+            surfaceAreas[i] = 2 * (length * width + width * height + length * height);
+        }
+    }
+
+}
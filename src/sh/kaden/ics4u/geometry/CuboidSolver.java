@@ -0,0 +1,140 @@
+package sh.kaden.ics4u.geometry;
+
+import java.util.Arrays;
+
+/**
+ * Finds the length, width and height of the cuboid with the least surface area for a volume.
+ * <p>
+ * Without bounds the answer is a cube. With bounds, the sides that aren't held at a bound stay equal, so every side is
+ * some common size {@code t} limited to that side's range, and the volume only grows as {@code t} does. Between two
+ * consecutive bounds the same sides are free, so the volume there is a fixed product times {@code t} to the power of
+ * the number of free sides. The solver works out those products once, finds the stretch that holds the target, and
+ * takes a root, so each solve is a short scan and one {@code sqrt} or {@code cbrt}, with no iteration.
+ */
+public final class CuboidSolver implements VolumeSolver {
+
+    private final double[] min; // the smallest length, width and height allowed
+    private final double[] max; // the largest length, width and height allowed
+    private final double minVolume;
+    private final double maxVolume;
+    private final double[] breakpoints; // every bound, in order; the stretch before breakpoint k is stretch k
+    private final double[] volumes; // the volume when t is at each breakpoint
+    private final double[] products; // the product of the held sides in each stretch
+    private final int[] freeSides; // the number of sides that equal t in each stretch
+
+    /**
+     * Constructs {@code CuboidSolver}.
+     *
+     * @param minLength the smallest length allowed
+     * @param maxLength the largest length allowed, which may be infinite
+     * @param minWidth  the smallest width allowed
+     * @param maxWidth  the largest width allowed, which may be infinite
+     * @param minHeight the smallest height allowed
+     * @param maxHeight the largest height allowed, which may be infinite
+     * @throws IllegalArgumentException if a range is invalid
+     */
+    public CuboidSolver(final double minLength,
+                        final double maxLength,
+                        final double minWidth,
+                        final double maxWidth,
+                        final double minHeight,
+                        final double maxHeight) {
+        Bounds.check("length", minLength, maxLength);
+        Bounds.check("width", minWidth, maxWidth);
+        Bounds.check("height", minHeight, maxHeight);
+
+        this.min = new double[]{minLength, minWidth, minHeight};
+        this.max = new double[]{maxLength, maxWidth, maxHeight};
+        this.minVolume = minLength * minWidth * minHeight;
+        this.maxVolume = maxLength * maxWidth * maxHeight;
+
+        this.breakpoints = new double[]{minLength, maxLength, minWidth, maxWidth, minHeight, maxHeight};
+        Arrays.sort(this.breakpoints);
+        this.volumes = new double[this.breakpoints.length];
+        this.products = new double[this.breakpoints.length];
+        this.freeSides = new int[this.breakpoints.length];
+
+        for (int k = 0; k < this.breakpoints.length; k++) {
+            final double start = k == 0 ? 0 : this.breakpoints[k - 1];
+            final double end = this.breakpoints[k];
+
+            double volume = 1;
+            double product = 1;
+            int free = 0;
+            for (int side = 0; side < 3; side++) {
+                volume *= Bounds.clamp(end, this.min[side], this.max[side]);
+                if (this.min[side] >= end) {
+                    product *= this.min[side];
+                } else if (this.max[side] <= start) {
+                    product *= this.max[side];
+                } else {
+                    free++;
+                }
+            }
+            this.volumes[k] = volume;
+            this.products[k] = product;
+            this.freeSides[k] = free;
+        }
+    }
+
+    /**
+     * Constructs {@code CuboidSolver} with no bounds.
+     */
+    public CuboidSolver() {
+        this(0, Double.POSITIVE_INFINITY, 0, Double.POSITIVE_INFINITY, 0, Double.POSITIVE_INFINITY);
+    }
+
+    @Override
+    public int dimensions() {
+        return 3;
+    }
+
+    /**
+     * Finds the length, width and height for a target volume.
+     *
+     * @param volume     the target volume
+     * @param dimensions where to write the answer: the length, width and height in the first three arrays
+     * @param index      the index to write the answer at
+     * @return true if the volume could be reached, false if not
+     */
+    @Override
+    public boolean solve(final double volume,
+                         final double[][] dimensions,
+                         final int index) {
+        if (!(volume > 0) || Double.isInfinite(volume) || volume < this.minVolume || volume > this.maxVolume) {
+            for (int side = 0; side < 3; side++) {
+                dimensions[side][index] = Double.NaN;
+            }
+            return false;
+        }
+
+        int k = 0;
+        while (this.volumes[k] < volume) {
+            k++; // ends at the last breakpoint at the latest, because the volume is at most maxVolume
+        }
+
+        final double t;
+        if (this.volumes[k] == volume) {
+            t = this.breakpoints[k];
+        } else {
+            final double power = volume / this.products[k];
+            switch (this.freeSides[k]) {
+                case 1:
+                    t = power;
+                    break;
+                case 2:
+                    t = Math.sqrt(power);
+                    break;
+                default:
+                    t = Math.cbrt(power);
+                    break;
+            }
+        }
+
+        for (int side = 0; side < 3; side++) {
+            dimensions[side][index] = Bounds.clamp(t, this.min[side], this.max[side]);
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,99 @@
+package sh.kaden.ics4u.geometry;
+
+/**
+ * A right circular cylinder, including both ends.
+ */
+public final class Cylinder implements Solid {
+
+    private final double radius;
+    private final double height;
+
+    /**
+     * Constructs {@code Cylinder}.
+     *
+     * @param radius the radius of the ends
+     * @param height the height
+     */
+    public Cylinder(final double radius,
+                    final double height) {
+        this.radius = radius;
+        this.height = height;
+    }
+
+    @Override
+    public double volume() {
+        return volume(this.radius, this.height);
+    }
+
+    @Override
+    public double surfaceArea() {
+        return surfaceArea(this.radius, this.height);
+    }
+
+    /**
+     * Calculates the volume of a cylinder.
+     *
+     * @param radius the radius
+     * @param height the height
+     * @return the volume
+     */
+    public static double volume(final double radius,
+                                final double height) {
+        return Math.PI * (radius * radius) * height;
+    }
+
+    /**
+     * Calculates the surface area of a cylinder: both ends plus its side.
+     *
+     * @param radius the radius
+     * @param height the height
+     * @return the surface area
+     */
+    public static double surfaceArea(final double radius,
+                                     final double height) {
+        return 2 * Math.PI * radius * (radius + height);
+    }
+
+    /**
+     * Calculates the volumes of many cylinders.
+     *
+     * @param radii   the radius of each cylinder
+     * @param heights the height of each cylinder
+     * @param volumes where to write the volume of each cylinder
+     * @param offset  the index of the first cylinder
+     * @param count   the number of cylinders
+     */
+    public static void volumes(final double[] radii,
+                               final double[] heights,
+                               final double[] volumes,
+                               final int offset,
+                               final int count) {
+        final int end = offset + count;
+        for (int i = offset; i < end; i++) {
+            final double radius = radii[i];
+            volumes[i] = Math.PI * (radius * radius) * heights[i];
+        }
+    }
+
+    /**
+     * Calculates the surface areas of many cylinders.
+     *
+     * @param radii        the radius of each cylinder
+     * @param heights      the height of each cylinder
+     * @param surfaceAreas where to write the surface area of each cylinder
+     * @param offset       the index of the first cylinder
+     * @param count        the number of cylinders
+     */
+    public static void surfaceAreas(final double[] radii,
+                                    final double[] heights,
+                                    final double[] surfaceAreas,
+                                    final int offset,
+                                    final int count) {
+        final int end = offset + count;
+        for (int i = offset; i < end; i++) {
+            final double radius = radii[i];
+            surfaceAreas[i] = 2 * Math.PI * radius * (radius + heights[i]);
+        }
+    }
+
+}
@@ -0,0 +1,26 @@
+package sh.kaden.ics4u.geometry;
+
+/**
+ * A three-dimensional shape with a volume and a surface area.
+ * <p>
+ * Every implementation also has static methods that take its dimensions as plain {@code double}s, and batch methods
+ * that fill an array of results from arrays of dimensions, so bulk work never creates a {@code Solid} per shape. See
+ * {@link SolidBatch} for storing many shapes at once.
+ */
+public interface Solid {
+
+    /**
+     * Returns the volume of the solid.
+     *
+     * @return the volume
+     */
+    double volume();
+
+    /**
+     * Returns the total surface area of the solid.
+     *
+     * @return the surface area
+     */
+    double surfaceArea();
+
+}
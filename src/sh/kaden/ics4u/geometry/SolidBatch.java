@@ -0,0 +1,276 @@
+package sh.kaden.ics4u.geometry;
+
+import java.util.Arrays;
+
+/**
+ * Many solids stored as columns instead of objects.
+ * <p>
+ * Each solid is a kind and up to three dimensions, kept in parallel arrays: a cuboid uses length, width and height, a
+ * cone or cylinder uses radius and height, and a sphere uses only its radius. {@link #volumes(double[])} and
+ * {@link #surfaceAreas(double[])} walk the batch in runs of the same kind and hand each run to that solid's array
+ * method, so evaluating a batch allocates nothing. Batches that add solids of one kind together evaluate fastest.
+ */
+public final class SolidBatch {
+
+    /**
+     * The kinds of solid a batch can hold.
+     */
+    public enum Kind {
+        CUBOID,
+        CONE,
+        CYLINDER,
+        SPHERE
+    }
+
+    private static final Kind[] KINDS = Kind.values(); // indexed by the stored ordinal
+
+    private byte[] kinds; // the ordinal of each solid's kind
+    private double[] first; // length, or radius
+    private double[] second; // width, or height
+    private double[] third; // height of a cuboid
+    private int size;
+
+    /**
+     * Constructs {@code SolidBatch}.
+     *
+     * @param capacity the number of solids to make room for; the batch grows past this if needed
+     */
+    public SolidBatch(final int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative: " + capacity);
+        }
+
+        this.kinds = new byte[capacity];
+        this.first = new double[capacity];
+        this.second = new double[capacity];
+        this.third = new double[capacity];
+    }
+
+    /**
+     * Adds a cuboid.
+     *
+     * @param length the length
+     * @param width  the width
+     * @param height the height
+     * @return the index of the cuboid
+     */
+    public int addCuboid(final double length,
+                         final double width,
+                         final double height) {
+        return this.add(Kind.CUBOID, length, width, height);
+    }
+
+    /**
+     * Adds a cone.
+     *
+     * @param radius the radius
+     * @param height the height
+     * @return the index of the cone
+     */
+    public int addCone(final double radius,
+                       final double height) {
+        return this.add(Kind.CONE, radius, height, 0);
+    }
+
+    /**
+     * Adds a cylinder.
+     *
+     * @param radius the radius
+     * @param height the height
+     * @return the index of the cylinder
+     */
+    public int addCylinder(final double radius,
+                           final double height) {
+        return this.add(Kind.CYLINDER, radius, height, 0);
+    }
+
+    /**
+     * Adds a sphere.
+     *
+     * @param radius the radius
+     * @return the index of the sphere
+     */
+    public int addSphere(final double radius) {
+        return this.add(Kind.SPHERE, radius, 0, 0);
+    }
+
+    /**
+     * Returns the number of solids in the batch.
+     *
+     * @return the size
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Removes every solid, keeping the arrays for reuse.
+     */
+    public void clear() {
+        this.size = 0;
+    }
+
+    /**
+     * Returns the kind of a solid.
+     *
+     * @param index the index of the solid
+     * @return the kind
+     */
+    public Kind kind(final int index) {
+        return KINDS[this.kinds[this.checkIndex(index)]];
+    }
+
+    /**
+     * Returns a solid in the batch as an object, for code that works with one shape at a time.
+     *
+     * @param index the index of the solid
+     * @return the solid
+     */
+    public Solid solid(final int index) {
+        final Kind kind = this.kind(index);
+        final double a = this.first[index];
+        final double b = this.second[index];
+
+        switch (kind) {
+            case CUBOID:
+                return new Cuboid(a, b, this.third[index]);
+            case CONE:
+                return new Cone(a, b);
+            case CYLINDER:
+                return new Cylinder(a, b);
+            default:
+                return new Sphere(a);
+        }
+    }
+
+    /**
+     * Calculates the volume of every solid.
+     *
+     * @param volumes where to write the volumes, at the same indices as the solids
+     */
+    public void volumes(final double[] volumes) {
+        this.checkOutput(volumes);
+
+        int start = 0;
+        while (start < this.size) {
+            final int end = this.runEnd(start);
+            final int count = end - start;
+
+            switch (KINDS[this.kinds[start]]) {
+                case CUBOID:
+                    Cuboid.volumes(this.first, this.second, this.third, volumes, start, count);
+                    break;
+                case CONE:
+                    Cone.volumes(this.first, this.second, volumes, start, count);
+                    break;
+                case CYLINDER:
+                    Cylinder.volumes(this.first, this.second, volumes, start, count);
+                    break;
+                default:
+                    Sphere.volumes(this.first, volumes, start, count);
+                    break;
+            }
+            start = end;
+        }
+    }
+
+    /**
+     * Calculates the total surface area of every solid.
+     *
+     * @param surfaceAreas where to write the surface areas, at the same indices as the solids
+     */
+    public void surfaceAreas(final double[] surfaceAreas) {
+        this.checkOutput(surfaceAreas);
+
+        int start = 0;
+        while (start < this.size) {
+            final int end = this.runEnd(start);
+            final int count = end - start;
+
+            switch (KINDS[this.kinds[start]]) {
+                case CUBOID:
+                    Cuboid.surfaceAreas(this.first, this.second, this.third, surfaceAreas, start, count);
+                    break;
+                case CONE:
+                    Cone.surfaceAreas(this.first, this.second, surfaceAreas, start, count);
+                    break;
+                case CYLINDER:
+                    Cylinder.surfaceAreas(this.first, this.second, surfaceAreas, start, count);
+                    break;
+                default:
+                    Sphere.surfaceAreas(this.first, surfaceAreas, start, count);
+                    break;
+            }
+            start = end;
+        }
+    }
+
+    /**
+     * Appends a solid, growing the columns if they are full.
+     *
+     * @param kind   the kind
+     * @param first  the first dimension
+     * @param second the second dimension
+     * @param third  the third dimension
+     * @return the index of the solid
+     */
+    private int add(final Kind kind,
+                    final double first,
+                    final double second,
+                    final double third) {
+        if (this.size == this.kinds.length) {
+            final int capacity = Math.max(16, this.size * 2);
+            this.kinds = Arrays.copyOf(this.kinds, capacity);
+            this.first = Arrays.copyOf(this.first, capacity);
+            this.second = Arrays.copyOf(this.second, capacity);
+            this.third = Arrays.copyOf(this.third, capacity);
+        }
+
+        final int index = this.size++;
+        this.kinds[index] = (byte) kind.ordinal();
+        this.first[index] = first;
+        this.second[index] = second;
+        this.third[index] = third;
+        return index;
+    }
+
+    /**
+     * Finds the end of the run of solids with the same kind as the one at {@code start}.
+     *
+     * @param start the index of the first solid in the run
+     * @return the index after the last solid in the run
+     */
+    private int runEnd(final int start) {
+        final byte kind = this.kinds[start];
+        int end = start + 1;
+        while (end < this.size && this.kinds[end] == kind) {
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * Checks that an index refers to a solid in the batch.
+     *
+     * @param index the index
+     * @return the index
+     */
+    private int checkIndex(final int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + this.size);
+        }
+        return index;
+    }
+
+    /**
+     * Checks that an output array has room for every solid.
+     *
+     * @param out the output array
+     */
+    private void checkOutput(final double[] out) {
+        if (out.length < this.size) {
+            throw new IllegalArgumentException("Output holds " + out.length + " values but the batch has " + this.size);
+        }
+    }
+
+}
@@ -0,0 +1,51 @@
+package sh.kaden.ics4u.geometry;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Solves a range of target volumes, splitting it in half until it is small enough to do directly.
+ */
+final class SolveTask extends RecursiveAction {
+
+    private static final int LEAF_SIZE = 1 << 10; // solves are cheap, so only split large ranges
+
+    private final VolumeSolver solver;
+    private final double[] volumes;
+    private final double[][] dimensions;
+    private final int offset;
+    private final int count;
+
+    /**
+     * Constructs {@code SolveTask}.
+     *
+     * @param solver     the solver
+     * @param volumes    the target volumes
+     * @param dimensions where to write the answers
+     * @param offset     the index of the first volume
+     * @param count      the number of volumes
+     */
+    SolveTask(final VolumeSolver solver,
+              final double[] volumes,
+              final double[][] dimensions,
+              final int offset,
+              final int count) {
+        this.solver = solver;
+        this.volumes = volumes;
+        this.dimensions = dimensions;
+        this.offset = offset;
+        this.count = count;
+    }
+
+    @Override
+    protected void compute() {
+        if (this.count <= LEAF_SIZE) {
+            this.solver.solve(this.volumes, this.dimensions, this.offset, this.count);
+            return;
+        }
+
+        final int half = this.count / 2;
+        invokeAll(new SolveTask(this.solver, this.volumes, this.dimensions, this.offset, half),
+                new SolveTask(this.solver, this.volumes, this.dimensions, this.offset + half, this.count - half));
+    }
+
+}
@@ -0,0 +1,87 @@
+package sh.kaden.ics4u.geometry;
+
+/**
+ * A sphere.
+ */
+public final class Sphere implements Solid {
+
+    private final double radius;
+
+    /**
+     * Constructs {@code Sphere}.
+     *
+     * @param radius the radius
+     */
+    public Sphere(final double radius) {
+        this.radius = radius;
+    }
+
+    @Override
+    public double volume() {
+        return volume(this.radius);
+    }
+
+    @Override
+    public double surfaceArea() {
+        return surfaceArea(this.radius);
+    }
+
+    /**
+     * Calculates the volume of a sphere.
+     *
+     * @param radius the radius
+     * @return the volume
+     */
+    public static double volume(final double radius) {
+        return 4 * Math.PI * (radius * radius * radius) / 3;
+    }
+
+    /**
+     * Calculates the surface area of a sphere.
+     *
+     * @param radius the radius
+     * @return the surface area
+     */
+    public static double surfaceArea(final double radius) {
+        return 4 * Math.PI * (radius * radius);
+    }
+
+    /**
+     * Calculates the volumes of many spheres.
+     *
+     * @param radii   the radius of each sphere
+     * @param volumes where to write the volume of each sphere
+     * @param offset  the index of the first sphere
+     * @param count   the number of spheres
+     */
+    public static void volumes(final double[] radii,
+                               final double[] volumes,
+                               final int offset,
+                               final int count) {
+        final int end = offset + count;
+        for (int i = offset; i < end; i++) {
+            final double radius = radii[i];
+            volumes[i] = 4 * Math.PI * (radius * radius * radius) / 3;
+        }
+    }
+
+    /**
+     * Calculates the surface areas of many spheres.
+     *
+     * @param radii        the radius of each sphere
+     * @param surfaceAreas where to write the surface area of each sphere
+     * @param offset       the index of the first sphere
+     * @param count        the number of spheres
+     */
+    public static void surfaceAreas(final double[] radii,
+                                    final double[] surfaceAreas,
+                                    final int offset,
+                                    final int count) {
+        final int end = offset + count;
+        for (int i = offset; i < end; i++) {
+            final double radius = radii[i];
+            surfaceAreas[i] = 4 * Math.PI * (radius * radius);
+        }
+    }
+
+}
@@ -0,0 +1,69 @@
+package sh.kaden.ics4u.geometry;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Finds the dimensions of a solid that hold a target volume with the least surface area, within bounds on each
+ * dimension.
+ * <p>
+ * This is the inverse of {@link Solid}: a volume goes in and dimensions come out. The dimensions are written to
+ * columns, one array per dimension, so a batch of targets can be solved without creating an object per answer. A target
+ * that can't be reached within the bounds gets {@link Double#NaN} for every dimension.
+ */
+public interface VolumeSolver {
+
+    /**
+     * Returns the number of dimensions this solver finds.
+     *
+     * @return the dimension count
+     */
+    int dimensions();
+
+    /**
+     * Finds the dimensions for one target volume.
+     *
+     * @param volume     the target volume
+     * @param dimensions where to write the answer, one array per dimension
+     * @param index      the index to write the answer at
+     * @return true if the volume could be reached, false if not
+     */
+    boolean solve(double volume,
+                  double[][] dimensions,
+                  int index);
+
+    /**
+     * Finds the dimensions for many target volumes.
+     *
+     * @param volumes    the target volumes
+     * @param dimensions where to write the answers, one array per dimension, at the same indices as the volumes
+     * @param offset     the index of the first volume
+     * @param count      the number of volumes
+     */
+    default void solve(final double[] volumes,
+                       final double[][] dimensions,
+                       final int offset,
+                       final int count) {
+        final int end = offset + count;
+        for (int i = offset; i < end; i++) {
+            this.solve(volumes[i], dimensions, i);
+        }
+    }
+
+    /**
+     * Finds the dimensions for many target volumes, splitting the work across a fork-join pool.
+     *
+     * @param pool       the pool
+     * @param volumes    the target volumes
+     * @param dimensions where to write the answers, one array per dimension, at the same indices as the volumes
+     * @param offset     the index of the first volume
+     * @param count      the number of volumes
+     */
+    default void solve(final ForkJoinPool pool,
+                       final double[] volumes,
+                       final double[][] dimensions,
+                       final int offset,
+                       final int count) {
+        pool.invoke(new SolveTask(this, volumes, dimensions, offset, count));
+    }
+
+}
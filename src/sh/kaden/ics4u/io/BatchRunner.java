@@ -0,0 +1,187 @@
+package sh.kaden.ics4u.io;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Runs a calculation over a file of rows, for the non-interactive modes of the calculator programs.
+ * <p>
+ * The input is either comma-separated text or a {@link ColumnarFile}, told apart by the columnar magic number. Rows are
+ * handed to the calculation in blocks of {@value #BLOCK_SIZE}, the results go out through a buffered writer as
+ * comma-separated text, and bad rows go to an {@link ErrorSink} with their line numbers.
+ */
+public final class BatchRunner {
+
+    /**
+     * The number of rows handed to a calculation at once.
+     */
+    public static final int BLOCK_SIZE = 1 << 12;
+
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+
+    private BatchRunner() {
+    }
+
+    /**
+     * Runs {@code calculation} over the input named in {@code args}, printing an error and exiting if it fails.
+     *
+     * @param args        the input file, then optionally the output file and the error file, which default to stdout
+     *                    and stderr
+     * @param usage       the usage line printed when there is no input file
+     * @param columns     the number of values in each input row
+     * @param header      the header line of the output
+     * @param calculation calculates and writes the results for each block of rows
+     */
+    public static void run(final String[] args,
+                           final String usage,
+                           final int columns,
+                           final String header,
+                           final Calculation calculation) {
+        if (args.length < 1) {
+            System.out.println(usage);
+            System.exit(1);
+        }
+
+        final Path input = Paths.get(args[0]);
+        try (final Writer out = open(args.length > 1 ? args[1] : null, System.out);
+             final Writer errorOut = open(args.length > 2 ? args[2] : null, System.err)) {
+            final ErrorSink errors = new ErrorSink(errorOut);
+            out.write(header);
+            out.write('\n');
+
+            final long rows = read(input, columns, errors,
+                    (lines, values, count) -> calculation.calculate(lines, values, count, out));
+
+            out.flush();
+            errors.flush();
+            System.err.println("Processed " + rows + " rows; " + errors.count() + " bad rows skipped.");
+        } catch (final IOException e) {
+            System.err.println("There was a problem processing the file: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Reads every row of a file, which is either comma-separated text or a {@link ColumnarFile}, in blocks of
+     * {@value #BLOCK_SIZE}.
+     *
+     * @param input   the file
+     * @param columns the number of values in each row
+     * @param errors  where to report bad rows
+     * @param handler processes each block
+     * @return the number of rows read, not counting bad rows
+     * @throws IOException if reading fails or the handler fails
+     */
+    public static long read(final Path input,
+                            final int columns,
+                            final ErrorSink errors,
+                            final RowBlockHandler handler) throws IOException {
+        if (ColumnarFile.isColumnar(input)) {
+            try (final ColumnarFile file = ColumnarFile.open(input)) {
+                return file.read(columns, BLOCK_SIZE, errors, handler);
+            }
+        }
+        try (final BufferedReader in = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+            return new CsvRowReader(in, columns, BLOCK_SIZE, errors).read(handler);
+        }
+    }
+
+    /**
+     * Removes {@code flag} and the number after it from {@code args}, printing an error and exiting if the number is
+     * missing or invalid.
+     *
+     * @param args     the program arguments, which are changed
+     * @param flag     the flag, like {@code --max-radius}
+     * @param fallback the value to use when the flag isn't given
+     * @return the number
+     */
+    public static double option(final List<String> args,
+                                final String flag,
+                                final double fallback) {
+        final int index = args.indexOf(flag);
+        if (index == -1) {
+            return fallback;
+        }
+        if (index + 1 >= args.size()) {
+            System.out.println(flag + " needs a number");
+            System.exit(1);
+        }
+
+        final String value = args.remove(index + 1);
+        args.remove(index);
+        try {
+            return Double.parseDouble(value);
+        } catch (final NumberFormatException e) {
+            System.out.println("'" + value + "' isn't a valid number for " + flag);
+            System.exit(1);
+            return fallback;
+        }
+    }
+
+    /**
+     * Writes a number in a form that reads back exactly.
+     *
+     * @param out   the writer
+     * @param value the number
+     * @throws IOException if writing fails
+     */
+    public static void writeNumber(final Writer out,
+                                   final double value) throws IOException {
+        out.write(Double.toString(value));
+    }
+
+    /**
+     * Opens a buffered writer to a file, or to {@code fallback} when there is no file.
+     * <p>
+     * Closing a writer to {@code fallback} only flushes it.
+     *
+     * @param path     the file, or null
+     * @param fallback the stream to use without a file
+     * @return the writer
+     * @throws IOException if the file could not be opened
+     */
+    public static Writer open(final String path,
+                              final PrintStream fallback) throws IOException {
+        if (path != null) {
+            return Files.newBufferedWriter(Paths.get(path), StandardCharsets.UTF_8);
+        }
+        return new BufferedWriter(new OutputStreamWriter(fallback, StandardCharsets.UTF_8), OUTPUT_BUFFER_SIZE) {
+            @Override
+            public void close() throws IOException {
+                this.flush();
+            }
+        };
+    }
+
+    /**
+     * Calculates and writes the results for a block of rows.
+     */
+    @FunctionalInterface
+    public interface Calculation {
+
+        /**
+         * Calculates the results for a block of rows and writes one line per row.
+         *
+         * @param lines   the line number of each row in the input
+         * @param columns the input values, one array per column, indexed by row
+         * @param rows    the number of rows in the block
+         * @param out     where to write the results
+         * @throws IOException if writing fails
+         */
+        void calculate(long[] lines,
+                       double[][] columns,
+                       int rows,
+                       Writer out) throws IOException;
+
+    }
+
+}
@@ -0,0 +1,329 @@
+package sh.kaden.ics4u.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A binary file of numeric columns, read through memory-mapped buffers.
+ * <p>
+ * The file is a {@value #HEADER_SIZE}-byte header holding a magic number, the format version, the column count and
+ * the row count, followed by each column in turn as little-endian {@code double}s. Every column is one contiguous run
+ * of values, so it can be mapped and handed to a batch calculation as a {@link DoubleBuffer} without parsing anything.
+ */
+public final class ColumnarFile implements Closeable {
+
+    /**
+     * The size of the file header in bytes.
+     */
+    public static final int HEADER_SIZE = 24;
+
+    private static final int MAGIC = 0x534C4F43; // "COLS"
+    private static final int VERSION = 1;
+    private static final int COLUMNS_OFFSET = 8;
+    private static final int ROWS_OFFSET = 16;
+    private static final long MAX_ROWS = Integer.MAX_VALUE / Double.BYTES; // one mapping per column
+
+    private final FileChannel channel;
+    private final int columns;
+    private final long rows;
+
+    private ColumnarFile(final FileChannel channel,
+                         final int columns,
+                         final long rows) {
+        this.channel = channel;
+        this.columns = columns;
+        this.rows = rows;
+    }
+
+    /**
+     * Checks to see if the file at {@code path} starts with the columnar file magic number.
+     *
+     * @param path the path
+     * @return true if it does, false if not or if it can't be read
+     */
+    public static boolean isColumnar(final Path path) {
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            return channel.read(magic, 0) == Integer.BYTES && magic.getInt(0) == MAGIC;
+        } catch (final IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Opens an existing columnar file.
+     *
+     * @param path the path
+     * @return the file
+     * @throws IOException if the file could not be read or is not a columnar file
+     */
+    public static ColumnarFile open(final Path path) throws IOException {
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+                // keep reading until the header is full or the file ends
+            }
+            if (header.hasRemaining() || header.getInt(0) != MAGIC) {
+                throw new IOException(path + " is not a columnar file.");
+            }
+            if (header.getInt(4) != VERSION) {
+                throw new IOException(path + " has unsupported columnar version " + header.getInt(4) + ".");
+            }
+
+            final int columns = header.getInt(COLUMNS_OFFSET);
+            final long rows = header.getLong(ROWS_OFFSET);
+            if (columns < 0 || rows < 0 || rows > MAX_ROWS) {
+                throw new IOException(path + " has an invalid size of " + columns + " columns by " + rows + " rows.");
+            }
+            if (channel.size() < HEADER_SIZE + columns * rows * Double.BYTES) {
+                throw new IOException(path + " is shorter than its " + rows + " rows.");
+            }
+            return new ColumnarFile(channel, columns, rows);
+        } catch (final IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes a columnar file, replacing any file at {@code path}.
+     *
+     * @param path    the path
+     * @param columns the values, one array per column
+     * @param rows    the number of rows to write from each column
+     * @throws IOException if writing fails
+     */
+    public static void write(final Path path,
+                             final double[][] columns,
+                             final int rows) throws IOException {
+        try (final Output output = create(path, columns.length, rows)) {
+            for (int column = 0; column < columns.length; column++) {
+                output.write(column, 0, columns[column], 0, rows);
+            }
+        }
+    }
+
+    /**
+     * Creates a columnar file of a known size to be filled in piece by piece, replacing any file at {@code path}.
+     * <p>
+     * This is for results too large to hold in memory at once. Values that are never written read back as zero.
+     *
+     * @param path    the path
+     * @param columns the number of columns
+     * @param rows    the number of rows in each column
+     * @return the file, open for writing
+     * @throws IOException if the file could not be created or the size is too large
+     */
+    public static Output create(final Path path,
+                                final int columns,
+                                final long rows) throws IOException {
+        if (columns < 0 || rows < 0 || rows > MAX_ROWS) {
+            throw new IOException("Cannot create a columnar file of " + columns + " columns by " + rows + " rows.");
+        }
+
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(columns).putInt(0).putLong(rows).flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            return new Output(channel, columns, rows);
+        } catch (final IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of columns.
+     *
+     * @return the column count
+     */
+    public int columns() {
+        return this.columns;
+    }
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return the row count
+     */
+    public long rows() {
+        return this.rows;
+    }
+
+    /**
+     * Maps a column.
+     *
+     * @param column the index of the column
+     * @return the column's values, read-only
+     * @throws IOException if the file could not be mapped
+     */
+    public DoubleBuffer column(final int column) throws IOException {
+        final long offset = HEADER_SIZE + column * this.rows * Double.BYTES;
+        return this.channel.map(FileChannel.MapMode.READ_ONLY, offset, this.rows * Double.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN)
+                .asDoubleBuffer();
+    }
+
+    /**
+     * Reads the first {@code count} columns and hands their rows to {@code handler} in blocks.
+     * <p>
+     * Rows with a value that isn't finite are reported to {@code errors} and skipped. The line number of a row is its
+     * index plus one.
+     *
+     * @param count     the number of columns to read
+     * @param blockSize the most rows handed over at once
+     * @param errors    where to report bad rows
+     * @param handler   processes each block
+     * @return the number of rows read, not counting bad rows
+     * @throws IOException if the file has too few columns, reading fails or the handler fails
+     */
+    public long read(final int count,
+                     final int blockSize,
+                     final ErrorSink errors,
+                     final RowBlockHandler handler) throws IOException {
+        if (count > this.columns) {
+            throw new IOException("Expected " + count + " columns but the file has " + this.columns + ".");
+        }
+
+        final DoubleBuffer[] buffers = new DoubleBuffer[count];
+        for (int column = 0; column < count; column++) {
+            buffers[column] = this.column(column);
+        }
+
+        final long[] lines = new long[blockSize];
+        final double[][] values = new double[count][blockSize];
+        long total = 0;
+        for (long first = 0; first < this.rows; first += blockSize) {
+            final int length = (int) Math.min(blockSize, this.rows - first);
+            for (int column = 0; column < count; column++) {
+                buffers[column].get(values[column], 0, length);
+            }
+
+            // drop bad rows by moving the good ones down over them
+            int rows = 0;
+            for (int row = 0; row < length; row++) {
+                final long line = first + row + 1;
+                boolean finite = true;
+                for (int column = 0; column < count; column++) {
+                    finite &= Double.isFinite(values[column][row]);
+                }
+                if (!finite) {
+                    errors.report(line, "a value is not a finite number");
+                    continue;
+                }
+
+                if (rows != row) {
+                    for (int column = 0; column < count; column++) {
+                        values[column][rows] = values[column][row];
+                    }
+                }
+                lines[rows++] = line;
+            }
+
+            if (rows > 0) {
+                handler.accept(lines, values, rows);
+                total += rows;
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    /**
+     * A columnar file being written.
+     * <p>
+     * Every write goes to its own position in the file, so threads may write different rows at the same time.
+     */
+    public static final class Output implements Closeable {
+
+        private static final int BLOCK_SIZE = 1 << 16;
+        private static final ThreadLocal<ByteBuffer> BLOCKS = ThreadLocal.withInitial(() ->
+                ByteBuffer.allocate(BLOCK_SIZE).order(ByteOrder.LITTLE_ENDIAN));
+
+        private final FileChannel channel;
+        private final int columns;
+        private final long rows;
+
+        /**
+         * Constructs {@code Output}.
+         *
+         * @param channel the file, with its header written
+         * @param columns the number of columns
+         * @param rows    the number of rows in each column
+         */
+        private Output(final FileChannel channel,
+                       final int columns,
+                       final long rows) {
+            this.channel = channel;
+            this.columns = columns;
+            this.rows = rows;
+        }
+
+        /**
+         * Writes a run of values down one column.
+         *
+         * @param column the index of the column
+         * @param row    the row of the first value
+         * @param values the values
+         * @param offset the index of the first value in {@code values}
+         * @param count  the number of values
+         * @throws IOException if writing fails
+         */
+        public void write(final int column,
+                          final long row,
+                          final double[] values,
+                          final int offset,
+                          final int count) throws IOException {
+            if (column < 0 || column >= this.columns) {
+                throw new IOException("Column " + column + " is outside the " + this.columns + " columns of the file.");
+            }
+            if (row < 0 || count < 0 || row + count > this.rows) {
+                throw new IOException("Rows " + row + " to " + (row + count) + " are outside the " + this.rows
+                        + " rows of the file.");
+            }
+
+            final ByteBuffer block = BLOCKS.get();
+            long position = HEADER_SIZE + (column * this.rows + row) * Double.BYTES;
+            for (int written = 0; written < count; ) {
+                block.clear();
+                final int length = Math.min(count - written, BLOCK_SIZE / Double.BYTES);
+                block.asDoubleBuffer().put(values, offset + written, length);
+                block.limit(length * Double.BYTES);
+                while (block.hasRemaining()) {
+                    position += this.channel.write(block, position);
+                }
+                written += length;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                // make the file full length even if the last values were never written
+                final long size = HEADER_SIZE + this.columns * this.rows * Double.BYTES;
+                if (this.channel.size() < size) {
+                    this.channel.write(ByteBuffer.allocate(1), size - 1);
+                }
+            } finally {
+                this.channel.close();
+            }
+        }
+
+    }
+
+}
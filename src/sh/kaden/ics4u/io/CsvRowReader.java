@@ -0,0 +1,136 @@
+package sh.kaden.ics4u.io;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Reads rows of numbers from comma-separated text into column arrays.
+ * <p>
+ * Rows are collected into blocks of columns and handed to a {@link RowBlockHandler}, so the calculation runs over
+ * plain arrays instead of one row object at a time. Blank lines are skipped, and so is the first line that isn't blank
+ * when none of its fields is a number, since that is a header. Any other row with the wrong number of fields, or a
+ * field that isn't a finite number, is reported to the {@link ErrorSink} and skipped.
+ */
+public final class CsvRowReader {
+
+    private final BufferedReader in;
+    private final ErrorSink errors;
+    private final long[] lines;
+    private final double[][] columns;
+
+    /**
+     * Constructs {@code CsvRowReader}.
+     *
+     * @param in        the text to read
+     * @param columns   the number of fields in each row
+     * @param blockSize the most rows handed over at once
+     * @param errors    where to report bad rows
+     */
+    public CsvRowReader(final BufferedReader in,
+                        final int columns,
+                        final int blockSize,
+                        final ErrorSink errors) {
+        this.in = in;
+        this.errors = errors;
+        this.lines = new long[blockSize];
+        this.columns = new double[columns][blockSize];
+    }
+
+    /**
+     * Reads every row and hands them to {@code handler} in blocks.
+     *
+     * @param handler processes each block
+     * @return the number of rows read, not counting bad rows
+     * @throws IOException if reading fails or the handler fails
+     */
+    public long read(final RowBlockHandler handler) throws IOException {
+        final int blockSize = this.lines.length;
+        long line = 0;
+        long total = 0;
+        int rows = 0;
+        boolean first = true;
+        String text;
+        while ((text = this.in.readLine()) != null) {
+            line++;
+            if (text.trim().isEmpty()) {
+                continue;
+            }
+
+            final String error = this.parse(text, rows);
+            final boolean header = first && error != null && isHeader(text);
+            first = false;
+            if (error != null) {
+                if (!header) {
+                    this.errors.report(line, error);
+                }
+                continue;
+            }
+
+            this.lines[rows++] = line;
+            if (rows == blockSize) {
+                handler.accept(this.lines, this.columns, rows);
+                total += rows;
+                rows = 0;
+            }
+        }
+
+        if (rows > 0) {
+            handler.accept(this.lines, this.columns, rows);
+            total += rows;
+        }
+        return total;
+    }
+
+    /**
+     * Checks whether a line is a header, which is a line where no field is a number.
+     *
+     * @param text the line
+     * @return true if it is a header
+     */
+    private static boolean isHeader(final String text) {
+        for (final String field : text.split(",")) {
+            try {
+                Double.parseDouble(field.trim());
+                return false;
+            } catch (final NumberFormatException e) {
+                // not a number, as expected for a column name
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses one line into row {@code row} of the columns.
+     *
+     * @param text the line
+     * @param row  the row to fill
+     * @return null if the line was parsed, or what was wrong with it
+     */
+    private String parse(final String text,
+                         final int row) {
+        int start = 0;
+        for (int column = 0; column < this.columns.length; column++) {
+            final int comma = text.indexOf(',', start);
+            final boolean last = column == this.columns.length - 1;
+            if (last ? comma != -1 : comma == -1) {
+                return "expected " + this.columns.length + " fields";
+            }
+
+            final String field = text.substring(start, last ? text.length() : comma).trim();
+            final double value;
+            try {
+                value = Double.parseDouble(field);
+            } catch (final NumberFormatException e) {
+                return "'" + field + "' is not a number";
+            }
+            if (!Double.isFinite(value)) {
+                return "'" + field + "' is not a finite number";
+            }
+
+            this.columns[column][row] = value;
+            start = comma + 1;
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,53 @@
+package sh.kaden.ics4u.io;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Collects the rows of a batch input that couldn't be processed, with the line they came from.
+ * <p>
+ * A bad row is reported and skipped, so one typo doesn't stop a run over millions of rows.
+ */
+public final class ErrorSink implements Flushable {
+
+    private final Writer out;
+    private long count;
+
+    /**
+     * Constructs {@code ErrorSink}.
+     *
+     * @param out where to write the reports, which should be buffered
+     */
+    public ErrorSink(final Writer out) {
+        this.out = out;
+    }
+
+    /**
+     * Reports a bad row.
+     *
+     * @param line    the line number of the row, starting at 1
+     * @param message what was wrong with it
+     * @throws IOException if writing fails
+     */
+    public void report(final long line,
+                       final String message) throws IOException {
+        this.out.write("line " + line + ": " + message + "\n");
+        this.count++;
+    }
+
+    /**
+     * Returns the number of rows reported.
+     *
+     * @return the number of bad rows
+     */
+    public long count() {
+        return this.count;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        this.out.flush();
+    }
+
+}
@@ -0,0 +1,25 @@
+package sh.kaden.ics4u.io;
+
+import java.io.IOException;
+
+/**
+ * Processes rows of numbers a block at a time.
+ */
+@FunctionalInterface
+public interface RowBlockHandler {
+
+    /**
+     * Processes a block of rows.
+     * <p>
+     * The arrays are reused for the next block, so they must not be kept.
+     *
+     * @param lines   the line number of each row in the input
+     * @param columns the values, one array per column, indexed by row
+     * @param rows    the number of rows in the block
+     * @throws IOException if writing the results fails
+     */
+    void accept(long[] lines,
+                double[][] columns,
+                int rows) throws IOException;
+
+}
@@ -0,0 +1,105 @@
+package sh.kaden.ics4u.lotto649;
+
+/**
+ * Compares a simulated {@link MatchHistogram} with the exact {@link LottoOdds}.
+ * <p>
+ * For every match count, the report gives the simulated frequency with a Wilson score confidence interval. The
+ * relative width of that interval is what the batch mode's stopping rule looks at: once the interval around the
+ * frequency of a match count is tight enough, running more tickets can't tell us much more about it.
+ */
+public final class ConvergenceReport {
+
+    /**
+     * The z value for a two-sided 95% confidence interval.
+     */
+    public static final double Z_95 = 1.959963984540054;
+
+    private final MatchHistogram histogram;
+    private final double[] exact;
+    private final double z;
+
+    /**
+     * Constructs {@code ConvergenceReport}.
+     *
+     * @param histogram the simulated histogram
+     * @param exact     the exact probabilities, indexed by match count
+     * @param z         the z value of the confidence level
+     */
+    public ConvergenceReport(final MatchHistogram histogram,
+                             final double[] exact,
+                             final double z) {
+        if (exact.length != histogram.maxMatches() + 1) {
+            throw new IllegalArgumentException("Expected " + (histogram.maxMatches() + 1) + " probabilities.");
+        }
+
+        this.histogram = histogram;
+        this.exact = exact;
+        this.z = z;
+    }
+
+    /**
+     * Returns the simulated frequency of a match count.
+     *
+     * @param matches the match count
+     * @return the frequency
+     */
+    public double frequency(final int matches) {
+        final long total = this.histogram.total();
+        return total == 0 ? 0 : (double) this.histogram.count(matches) / total;
+    }
+
+    /**
+     * Returns half the width of the Wilson score interval around the frequency of a match count.
+     *
+     * @param matches the match count
+     * @return the half-width
+     */
+    public double halfWidth(final int matches) {
+        final double n = this.histogram.total();
+        if (n == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        final double p = this.frequency(matches);
+        final double z2 = this.z * this.z;
+        return this.z / (1 + z2 / n) * Math.sqrt(p * (1 - p) / n + z2 / (4 * n * n));
+    }
+
+    /**
+     * Returns the half-width of the confidence interval of a match count, relative to its exact probability.
+     *
+     * @param matches the match count
+     * @return the relative half-width
+     */
+    public double relativeHalfWidth(final int matches) {
+        return this.exact[matches] == 0 ? Double.POSITIVE_INFINITY : this.halfWidth(matches) / this.exact[matches];
+    }
+
+    /**
+     * Returns true if the interval of {@code matches} is within {@code tolerance} of its exact probability, relative to
+     * that probability.
+     *
+     * @param matches   the match count
+     * @param tolerance the relative tolerance, e.g. {@code 0.01} for 1%
+     * @return true if the simulation has converged for that match count
+     */
+    public boolean converged(final int matches,
+                             final double tolerance) {
+        return this.relativeHalfWidth(matches) <= tolerance;
+    }
+
+    /**
+     * Prints a table comparing the simulated and exact frequencies.
+     */
+    public void print() {
+        System.out.println("Matches   Simulated        Exact            Interval +/-     Within interval");
+        for (int matches = 0; matches < this.exact.length; matches++) {
+            final double frequency = this.frequency(matches);
+            final double halfWidth = this.halfWidth(matches);
+            final boolean within = Math.abs(frequency - this.exact[matches]) <= halfWidth;
+            System.out.printf("%-9d %-16.10f %-16.10f %-16.10f %s\n",
+                    matches, frequency, this.exact[matches], halfWidth, within ? "yes" : "no");
+        }
+    }
+
+}
@@ -1,12 +1,8 @@
 package sh.kaden.ics4u.lotto649;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.Random;
 import java.util.Scanner;
+import java.util.SplittableRandom;
 
 /**
  * Assignment 'Lotto Array Assign 1'
@@ -14,25 +10,37 @@ import java.util.Scanner;
 public class LottoApp {
 
     // Static constant variables, I don't like magic numbers.
-    private final int MIN_TICKET_COUNT = 1;
-    private final int MAX_TICKET_COUNT = 100;
-    private final int MIN_TICKET_NUMBER = 1;
-    private final int MAX_TICKET_NUMBER = 49;
-    private final int TICKET_NUMBER_COUNT = 6;
-    private static final Random RANDOM = new Random();
+    private static final int MIN_TICKET_COUNT = 1;
+    private static final int MAX_TICKET_COUNT = 100;
+    static final int MIN_TICKET_NUMBER = 1;
+    static final int MAX_TICKET_NUMBER = 49;
+    static final int TICKET_NUMBER_COUNT = 6;
+    private static final int MAX_PRINTED_WINNERS = 1000;
+    private static final SplittableRandom RANDOM = new SplittableRandom();
 
     /**
      * The command-line entrypoint for {@code LottoApp}.
+     * <p>
+     * When a ticket count is passed as the first argument, the app runs non-interactively in {@link LottoBatch batch
+     * mode} instead of asking questions.
      *
      * @param args the program arguments
      */
     public static void main(final String[] args) {
+        if (args.length > 0) {
+            LottoBatch.main(args);
+            return;
+        }
+
         new LottoApp().start();
     }
 
     private final Scanner scanner;
+    private final TicketSampler sampler; // draws the numbers for every ticket
     private final int[] winningNumbers; // an array containing the winning numbers
-    private int[][] tickets; // An array of tickets and their corresponding numbers
+    private final long winningMask; // the winning numbers encoded as a TicketMask
+    private TicketStore tickets; // The tickets, each stored as its TicketCodec rank
+    private TicketIndex index; // The tickets containing each number
     private int ticketCount; // How many tickets we're generating
 
     /**
@@ -40,7 +48,9 @@ public class LottoApp {
      */
     public LottoApp() {
         this.scanner = new Scanner(System.in);
+        this.sampler = new TicketSampler();
         this.winningNumbers = this.generateRandomNumbers(TICKET_NUMBER_COUNT);
+        this.winningMask = TicketMask.encode(this.winningNumbers);
     }
 
     /**
@@ -85,12 +95,13 @@ public class LottoApp {
      * Generates the lottery tickets and prints out the winning numbers.
      */
     private void generateTickets() {
-        this.tickets = new int[this.ticketCount][];
+        this.tickets = new TicketStore(new TicketCodec(), this.ticketCount);
 
-        for (int i = 0; i < this.tickets.length; i++) {
+        for (int i = 0; i < this.ticketCount; i++) {
             final int[] numbers = this.generateRandomNumbers(TICKET_NUMBER_COUNT);
-            this.tickets[i] = numbers;
+            this.tickets.add(TicketMask.encode(numbers));
         }
+        this.index = TicketIndex.of(this.tickets);
 
         try {
             System.out.print("Generating " + this.ticketCount + " tickets");
@@ -116,57 +127,30 @@ public class LottoApp {
      * Check tickets to see if there are any winners.
      */
     private void checkTickets() {
-        // Create a hashmap that will map a list of ticket numbers to how many matches the ticket contains.
-        final Map<Integer, List<Integer>> matchingMap = new HashMap<>();
-
-        for (int i = 0; i < this.tickets.length; i++) {
-            final int ticketNumber = i;
-            int[] ticket = this.tickets[ticketNumber];
-            int matches = 0;
-            for (int j = 0; j < ticket.length; j++) {
-                if (this.winningTicketContains(ticket[j])) {
-                    matches++;
-                }
+        // Count the tickets for each number of matches, and look up the winning tickets in the index.
+        final long[] matchCounts = this.index.matchCounts(this.winningMask);
+        final MatchHistogram histogram = new MatchHistogram(TICKET_NUMBER_COUNT, MAX_PRINTED_WINNERS);
+        this.index.forEachMatching(this.winningMask, MatchHistogram.MIN_WINNING_MATCHES, histogram::record);
+
+        for (int matchAmount = 0; matchAmount < matchCounts.length; matchAmount++) {
+            final long ticketCount = matchCounts[matchAmount];
+            if (ticketCount == 0) {
+                continue;
             }
-            matchingMap.compute(matches, (key, list) -> {
-                if (list == null) {
-                    list = new ArrayList<>();
-                }
-
-                list.add(ticketNumber);
-
-                return list;
-            });
-        }
 
-        for (final Map.Entry<Integer, List<Integer>> matchesEntry : matchingMap.entrySet()) {
-            final Integer matchAmount = matchesEntry.getKey();
-            final List<Integer> tickets = matchesEntry.getValue();
-            System.out.println(tickets.size() + " tickets match " + matchAmount + " numbers with the winning numbers.");
-            if (matchAmount >= 3) {
-                for (final int ticket : tickets) {
+            System.out.println(ticketCount + " tickets match " + matchAmount + " numbers with the winning numbers.");
+            if (matchAmount >= MatchHistogram.MIN_WINNING_MATCHES) {
+                final int[] winners = histogram.winners(matchAmount);
+                for (final int ticket : winners) {
                     System.out.println("  - ticket " + ticket + ": " + Arrays.toString(this.getTicketNumbersFor(ticket)));
                 }
+                if (winners.length < ticketCount) {
+                    System.out.println("  - and " + (ticketCount - winners.length) + " more");
+                }
             }
         }
     }
 
-    /**
-     * Returns true if the winning numbers contain the provided number.
-     *
-     * @param number the number
-     * @return the ticket
-     */
-    private boolean winningTicketContains(final int number) {
-        for (final int winningNumber : this.winningNumbers) {
-            if (winningNumber == number) {
-                return true;
-            }
-        }
-
-        return false;
-    }
-
     /**
      * Returns the ticket numbers for the provided ticket.
      *
@@ -174,7 +158,7 @@ public class LottoApp {
      * @return the tickets
      */
     private int[] getTicketNumbersFor(final int ticketIndex) {
-        return this.tickets[ticketIndex];
+        return TicketMask.decode(this.tickets.get(ticketIndex));
     }
 
     /**
@@ -182,45 +166,13 @@ public class LottoApp {
      * <p>
      * This method will ensure no duplicate numbers are included in the array.
      *
-     * @param length the length
+     * @param length the length, at most {@link #TICKET_NUMBER_COUNT}
      * @return the integer array
      */
     private int[] generateRandomNumbers(final int length) {
-        int[] arr = new int[length];
-        for (int i = 0; i < length; i++) {
-            int candidate = randomInt(MIN_TICKET_NUMBER, MAX_TICKET_NUMBER);
-            boolean added = false;
-            while (!added) {
-                boolean contains = false;
-                for (int j = 0; j < length; j++) {
-                    if (arr[j] == candidate) {
-                        contains = true;
-                        break;
-                    }
-                }
-
-                if (!contains) {
-                    arr[i] = candidate;
-                    added = true;
-                } else {
-                    candidate = randomInt(MIN_TICKET_NUMBER, MAX_TICKET_NUMBER);
-                }
-            }
-        }
-        return arr;
+        final int[] numbers = new int[length];
+        this.sampler.next(RANDOM, numbers, length);
+        return numbers;
     }
 
-    /**
-     * Returns a random integer between min (inclusive) and max (inclusive).
-     *
-     * @param min the min number
-     * @param max the max number
-     * @return a random number
-     */
-    private static int randomInt(final int min,
-                                 final int max) {
-        return RANDOM.nextInt((max - min) + 1) + min;
-    }
-
-
 }
@@ -0,0 +1,278 @@
+package sh.kaden.ics4u.lotto649;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static sh.kaden.ics4u.lotto649.LottoApp.TICKET_NUMBER_COUNT;
+
+/**
+ * Runs the lottery non-interactively for a large number of tickets.
+ * <p>
+ * Unlike {@link LottoApp}, tickets are never stored: each one is generated as a {@link TicketMask}, scored against the
+ * winning numbers straight away, and only the number of tickets per match count is kept. The work is spread over a
+ * {@link ParallelTicketEngine}, so a run is reproducible from its seed.
+ */
+public class LottoBatch {
+
+    /**
+     * The command-line entrypoint for {@code LottoBatch}.
+     * <p>
+     * With {@code --journal <file>}, the generated tickets are also written to a {@link TicketJournal}. With
+     * {@code --rescore <file>}, no tickets are generated; instead the tickets in an existing journal are scored against
+     * a new draw. With {@code --until <tolerance>}, the ticket count is only an upper limit: tickets are generated in
+     * rounds until the 95% confidence interval of the {@code --tier} match count (3 unless given) is within
+     * {@code tolerance} of its exact probability; it can't be combined with a journal.
+     *
+     * @param args the program arguments: the ticket count, and optionally the seed and the number of threads
+     */
+    public static void main(final String[] args) {
+        final List<String> positional = new ArrayList<>();
+        final Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].startsWith("--") && i + 1 < args.length) {
+                options.put(args[i], args[++i]);
+            } else {
+                positional.add(args[i]);
+            }
+        }
+
+        final Path journalPath = options.containsKey("--journal") ? Paths.get(options.get("--journal")) : null;
+        final Path rescorePath = options.containsKey("--rescore") ? Paths.get(options.get("--rescore")) : null;
+        final String[] values = positional.toArray(new String[0]);
+        final int offset = rescorePath == null ? 1 : 0; // a re-score has no ticket count
+        final boolean until = options.containsKey("--until");
+        if (values.length < offset || (until && (journalPath != null || rescorePath != null))) {
+            System.out.println("Usage: LottoBatch <ticket count> [seed] [threads] [--journal <file>]");
+            System.out.println("       LottoBatch <max ticket count> [seed] [threads] --until <tolerance> [--tier <matches>]");
+            System.out.println("       LottoBatch --rescore <file> [seed] [threads]");
+            System.exit(1);
+        }
+
+        final long ticketCount = offset == 0 ? 1 : parseArgument(values, 0, "ticket count", 0);
+        final long seed = parseArgument(values, offset, "seed", System.nanoTime());
+        final long threads = parseArgument(values, offset + 1, "thread count", Runtime.getRuntime().availableProcessors());
+
+        if (ticketCount < 1 || threads < 1) {
+            System.out.println("The ticket count and thread count must be at least 1.");
+            System.exit(1);
+        }
+
+        final ForkJoinPool pool = new ForkJoinPool((int) Math.min(threads, Short.MAX_VALUE));
+        try {
+            final LottoBatch batch = new LottoBatch(ticketCount, seed, pool);
+            if (rescorePath != null) {
+                batch.rescore(rescorePath);
+            } else if (journalPath != null) {
+                batch.run(journalPath);
+            } else if (until) {
+                final double tolerance = Double.parseDouble(options.get("--until"));
+                final int tier = Integer.parseInt(options.getOrDefault("--tier", "3"));
+                if (tier < 0 || tier > TICKET_NUMBER_COUNT || !(tolerance > 0)) {
+                    System.out.println("The tier must be between 0 and " + TICKET_NUMBER_COUNT + ", and the tolerance above 0.");
+                    System.exit(1);
+                }
+                batch.runUntilConverged(tolerance, tier);
+            } else {
+                batch.run();
+            }
+        } catch (final NumberFormatException e) {
+            System.out.println("The tolerance and tier must be numbers.");
+            System.exit(1);
+        } catch (final IOException e) {
+            System.out.println("There was a problem with the ticket journal: " + e.getMessage());
+            System.exit(1);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Parses a numeric program argument, exiting if it is not a number.
+     *
+     * @param args         the program arguments
+     * @param index        the argument index
+     * @param name         the name of the argument, used in the error message
+     * @param defaultValue the value to use when the argument is missing
+     * @return the argument value
+     */
+    private static long parseArgument(final String[] args,
+                                      final int index,
+                                      final String name,
+                                      final long defaultValue) {
+        if (index >= args.length) {
+            return defaultValue;
+        }
+
+        try {
+            return Long.parseLong(args[index]);
+        } catch (final NumberFormatException e) {
+            System.out.println("The " + name + " '" + args[index] + "' is not a number.");
+            System.exit(1);
+            return defaultValue;
+        }
+    }
+
+    private static final long MAX_ROUND_SIZE = 64L * ParallelTicketEngine.BLOCK_SIZE;
+
+    private final long ticketCount; // how many tickets to generate
+    private final long seed; // the seed every ticket and the winning numbers are derived from
+    private final ForkJoinPool pool;
+    private final ParallelTicketEngine engine;
+    private MatchHistogram histogram; // the number of tickets for each match count
+
+    /**
+     * Constructs {@code LottoBatch}.
+     *
+     * @param ticketCount the number of tickets to generate
+     * @param seed        the seed
+     * @param pool        the pool to generate tickets on
+     */
+    public LottoBatch(final long ticketCount,
+                      final long seed,
+                      final ForkJoinPool pool) {
+        this.ticketCount = ticketCount;
+        this.seed = seed;
+        this.pool = pool;
+        this.engine = new ParallelTicketEngine(pool, seed);
+    }
+
+    /**
+     * Generates and scores every ticket, then prints the results.
+     */
+    public void run() {
+        final long winningMask = this.drawWinningNumbers();
+        System.out.println("Generating " + this.ticketCount + " tickets with seed " + this.seed + ".");
+        this.printWinningNumbers(winningMask);
+
+        final long start = System.nanoTime();
+        this.histogram = this.engine.run(this.ticketCount, winningMask);
+        this.printResults(this.ticketCount, System.nanoTime() - start);
+    }
+
+    /**
+     * Generates and scores tickets in rounds until the confidence interval of the {@code tier} match count is within
+     * {@code tolerance} of its exact probability, or until the ticket count is reached, then prints the results.
+     * <p>
+     * Rounds always cover whole engine blocks, so the stopping point, and therefore the result, is still reproducible
+     * from the seed.
+     *
+     * @param tolerance the relative tolerance, e.g. {@code 0.01} for 1%
+     * @param tier      the match count to watch
+     */
+    public void runUntilConverged(final double tolerance,
+                                  final int tier) {
+        final long winningMask = this.drawWinningNumbers();
+        System.out.println("Generating up to " + this.ticketCount + " tickets with seed " + this.seed
+                + ", until " + tier + " matches are within " + (tolerance * 100) + "% of their exact odds.");
+        this.printWinningNumbers(winningMask);
+
+        final double[] exact = LottoOdds.probabilities();
+        final long start = System.nanoTime();
+        this.histogram = new MatchHistogram(TICKET_NUMBER_COUNT, 0);
+        final ConvergenceReport report = new ConvergenceReport(this.histogram, exact, ConvergenceReport.Z_95);
+
+        long generated = 0;
+        long round = ParallelTicketEngine.BLOCK_SIZE;
+        while (generated < this.ticketCount && !report.converged(tier, tolerance)) {
+            final long end = Math.min(this.ticketCount, generated + round);
+            this.histogram.merge(this.engine.run(generated, end, winningMask));
+            generated = end;
+            round = Math.min(round * 2, MAX_ROUND_SIZE); // check often early on, then let rounds grow
+        }
+
+        this.printResults(generated, System.nanoTime() - start);
+        if (report.converged(tier, tolerance)) {
+            System.out.println("Converged after " + generated + " of at most " + this.ticketCount + " tickets.");
+        } else {
+            System.out.println("Stopped at the ticket limit before converging.");
+        }
+    }
+
+    /**
+     * Generates and scores every ticket, appends the tickets to the journal at {@code journalPath}, then prints the
+     * results.
+     *
+     * @param journalPath the journal path, which is created if it doesn't exist
+     * @throws IOException if the journal could not be written
+     */
+    public void run(final Path journalPath) throws IOException {
+        final long winningMask = this.drawWinningNumbers();
+        System.out.println("Generating " + this.ticketCount + " tickets with seed " + this.seed + " into " + journalPath + ".");
+        this.printWinningNumbers(winningMask);
+
+        final long start = System.nanoTime();
+        final boolean exists = Files.exists(journalPath);
+        try (final TicketJournal journal = exists ? TicketJournal.open(journalPath) : TicketJournal.create(journalPath)) {
+            this.histogram = this.engine.run(this.ticketCount, winningMask, journal);
+        }
+        this.printResults(this.ticketCount, System.nanoTime() - start);
+    }
+
+    /**
+     * Scores the tickets in the journal at {@code journalPath} against a new draw, then prints the results.
+     *
+     * @param journalPath the journal path
+     * @throws IOException if the journal could not be read
+     */
+    public void rescore(final Path journalPath) throws IOException {
+        final long winningMask = this.drawWinningNumbers();
+        try (final TicketJournal journal = TicketJournal.open(journalPath)) {
+            System.out.println("Scoring " + journal.size() + " tickets from " + journalPath + " with seed " + this.seed + ".");
+            this.printWinningNumbers(winningMask);
+
+            final long start = System.nanoTime();
+            this.histogram = journal.score(new TicketCodec(), winningMask, this.pool);
+            this.printResults(journal.size(), System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Returns the number of tickets that matched {@code matches} winning numbers.
+     *
+     * @param matches the match count
+     * @return the number of tickets
+     */
+    public long matchCount(final int matches) {
+        return this.histogram.count(matches);
+    }
+
+    /**
+     * Draws the winning numbers from the seed.
+     *
+     * @return the winning numbers as a {@link TicketMask}
+     */
+    private long drawWinningNumbers() {
+        return new TicketSampler().nextMask(new SplittableRandom(this.seed));
+    }
+
+    private void printWinningNumbers(final long winningMask) {
+        System.out.println("The winning numbers are " + Arrays.toString(TicketMask.decode(winningMask)) + ".");
+    }
+
+    /**
+     * Prints the match histogram and the scoring rate.
+     *
+     * @param tickets the number of tickets scored
+     * @param elapsed how long scoring took, in nanoseconds
+     */
+    private void printResults(final long tickets,
+                              final long elapsed) {
+        for (int matches = 0; matches <= this.histogram.maxMatches(); matches++) {
+            System.out.println(this.histogram.count(matches) + " tickets match " + matches + " numbers with the winning numbers.");
+        }
+
+        final double seconds = elapsed / 1e9;
+        System.out.printf("Scored %d tickets in %.3f seconds (%.0f tickets per second).\n", tickets, seconds, tickets / seconds);
+        new ConvergenceReport(this.histogram, LottoOdds.probabilities(), ConvergenceReport.Z_95).print();
+    }
+
+}
@@ -0,0 +1,67 @@
+package sh.kaden.ics4u.lotto649;
+
+/**
+ * Calculates the exact probability of each number of matches.
+ * <p>
+ * A ticket of {@code n} numbers drawn from {@code N} matches exactly {@code k} of the {@code n} winning numbers with the
+ * hypergeometric probability {@code C(n, k) * C(N - n, n - k) / C(N, n)}: choose which winning numbers are on the
+ * ticket, then fill the rest of the ticket from the losing numbers.
+ */
+public final class LottoOdds {
+
+    private LottoOdds() {
+    }
+
+    /**
+     * Returns the probability of each number of matches for the {@link LottoApp} game.
+     *
+     * @return the probabilities, indexed by match count
+     */
+    public static double[] probabilities() {
+        return probabilities(LottoApp.MAX_TICKET_NUMBER - LottoApp.MIN_TICKET_NUMBER + 1, LottoApp.TICKET_NUMBER_COUNT);
+    }
+
+    /**
+     * Returns the probability of each number of matches when tickets and the winning draw both have {@code count}
+     * numbers out of {@code range}.
+     *
+     * @param range the number of possible numbers
+     * @param count how many numbers are on each ticket
+     * @return the probabilities, indexed by match count
+     */
+    public static double[] probabilities(final int range,
+                                         final int count) {
+        if (count < 0 || count > range) {
+            throw new IllegalArgumentException("Cannot draw " + count + " numbers out of " + range + ".");
+        }
+
+        final double total = binomial(range, count);
+        final double[] probabilities = new double[count + 1];
+        for (int k = 0; k <= count; k++) {
+            probabilities[k] = binomial(count, k) * binomial(range - count, count - k) / total;
+        }
+        return probabilities;
+    }
+
+    /**
+     * Returns the binomial coefficient {@code C(n, k)} as a double.
+     *
+     * @param n the number of items
+     * @param k the number of items chosen
+     * @return the number of ways to choose
+     */
+    static double binomial(final int n,
+                           final int k) {
+        if (k < 0 || k > n) {
+            return 0;
+        }
+
+        final int smaller = Math.min(k, n - k);
+        double result = 1;
+        for (int i = 1; i <= smaller; i++) {
+            result = result * (n - smaller + i) / i;
+        }
+        return Math.rint(result);
+    }
+
+}
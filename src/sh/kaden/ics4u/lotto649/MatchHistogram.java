@@ -0,0 +1,153 @@
+package sh.kaden.ics4u.lotto649;
+
+import java.util.Arrays;
+
+/**
+ * Counts how many tickets matched each number of winning numbers, while remembering which tickets were winners.
+ * <p>
+ * Memory doesn't grow with the number of tickets: there is one {@code long} counter per match count, and the indices of
+ * winning tickets are kept in primitive arrays that stop growing once {@link #maxWinnersPerTier()} indices have been
+ * recorded for a match count. The counters stay exact either way.
+ */
+public final class MatchHistogram {
+
+    /**
+     * The fewest matches a ticket needs for its index to be recorded.
+     */
+    public static final int MIN_WINNING_MATCHES = 3;
+
+    private static final int INITIAL_WINNER_CAPACITY = 16;
+
+    private final long[] counts; // the number of tickets for each match count, indexed by match count
+    private final int[][] winners; // the winning ticket indices, indexed by match count - MIN_WINNING_MATCHES
+    private final int[] winnerCounts; // how many indices are stored in each winners array
+    private final int maxWinnersPerTier;
+
+    /**
+     * Constructs {@code MatchHistogram}.
+     *
+     * @param numbersPerTicket  how many numbers are on each ticket
+     * @param maxWinnersPerTier the most ticket indices to record for each winning match count
+     */
+    public MatchHistogram(final int numbersPerTicket,
+                          final int maxWinnersPerTier) {
+        this.counts = new long[numbersPerTicket + 1];
+        final int tiers = Math.max(0, numbersPerTicket + 1 - MIN_WINNING_MATCHES);
+        this.winners = new int[tiers][];
+        this.winnerCounts = new int[tiers];
+        this.maxWinnersPerTier = maxWinnersPerTier;
+        for (int i = 0; i < tiers; i++) {
+            this.winners[i] = new int[Math.min(INITIAL_WINNER_CAPACITY, maxWinnersPerTier)];
+        }
+    }
+
+    /**
+     * Records a ticket.
+     *
+     * @param ticketIndex the index of the ticket
+     * @param matches     how many winning numbers the ticket contains
+     */
+    public void record(final int ticketIndex,
+                       final int matches) {
+        this.counts[matches]++;
+
+        if (matches >= MIN_WINNING_MATCHES) {
+            final int tier = matches - MIN_WINNING_MATCHES;
+            final int size = this.winnerCounts[tier];
+            if (size < this.maxWinnersPerTier) {
+                if (size == this.winners[tier].length) {
+                    final int grown = (int) Math.min(this.maxWinnersPerTier, Math.max(1, size * 2L));
+                    this.winners[tier] = Arrays.copyOf(this.winners[tier], grown);
+                }
+                this.winners[tier][size] = ticketIndex;
+                this.winnerCounts[tier] = size + 1;
+            }
+        }
+    }
+
+    /**
+     * Records a ticket without remembering its index.
+     *
+     * @param matches how many winning numbers the ticket contains
+     */
+    public void add(final int matches) {
+        this.counts[matches]++;
+    }
+
+    /**
+     * Adds the counts of {@code other} to this histogram.
+     * <p>
+     * Ticket indices are not merged, since they are only meaningful to the histogram that recorded them.
+     *
+     * @param other the other histogram
+     */
+    public void merge(final MatchHistogram other) {
+        for (int i = 0; i < this.counts.length; i++) {
+            this.counts[i] += other.counts[i];
+        }
+    }
+
+    /**
+     * Returns the highest match count a ticket can have.
+     *
+     * @return the highest match count
+     */
+    public int maxMatches() {
+        return this.counts.length - 1;
+    }
+
+    /**
+     * Returns the number of tickets that matched {@code matches} winning numbers.
+     *
+     * @param matches the match count
+     * @return the number of tickets
+     */
+    public long count(final int matches) {
+        return this.counts[matches];
+    }
+
+    /**
+     * Returns the total number of tickets recorded.
+     *
+     * @return the total
+     */
+    public long total() {
+        long total = 0;
+        for (final long count : this.counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Returns a copy of the counts, indexed by match count.
+     *
+     * @return the counts
+     */
+    public long[] counts() {
+        return this.counts.clone();
+    }
+
+    /**
+     * Returns the recorded indices of tickets that matched {@code matches} winning numbers.
+     * <p>
+     * This may be shorter than {@link #count(int)} if more than {@link #maxWinnersPerTier()} tickets matched.
+     *
+     * @param matches the match count, at least {@link #MIN_WINNING_MATCHES}
+     * @return the ticket indices, in the order they were recorded
+     */
+    public int[] winners(final int matches) {
+        final int tier = matches - MIN_WINNING_MATCHES;
+        return Arrays.copyOf(this.winners[tier], this.winnerCounts[tier]);
+    }
+
+    /**
+     * Returns the most ticket indices recorded for each winning match count.
+     *
+     * @return the limit
+     */
+    public int maxWinnersPerTier() {
+        return this.maxWinnersPerTier;
+    }
+
+}
@@ -0,0 +1,209 @@
+package sh.kaden.ics4u.lotto649;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import static sh.kaden.ics4u.lotto649.LottoApp.TICKET_NUMBER_COUNT;
+
+/**
+ * Generates and scores tickets in parallel on a {@link ForkJoinPool}.
+ * <p>
+ * The ticket range is cut into fixed-size blocks, and every block gets its own {@link SplittableRandom} seeded from the
+ * engine seed and the block's index. Since the tickets in a block never depend on which thread runs it, the same seed
+ * always gives the same match histogram, no matter how many cores are used. Each task counts into its own
+ * {@link MatchHistogram}, and the histograms are merged as tasks are joined.
+ */
+public class ParallelTicketEngine {
+
+    /**
+     * The number of tickets generated from a single random number generator.
+     */
+    public static final int BLOCK_SIZE = 1 << 16;
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final ForkJoinPool pool;
+    private final long seed;
+
+    /**
+     * Constructs {@code ParallelTicketEngine}.
+     *
+     * @param pool the pool to run on
+     * @param seed the seed that every ticket is derived from
+     */
+    public ParallelTicketEngine(final ForkJoinPool pool,
+                                final long seed) {
+        this.pool = pool;
+        this.seed = seed;
+    }
+
+    /**
+     * Generates {@code ticketCount} tickets and scores them against {@code winningMask}.
+     *
+     * @param ticketCount the number of tickets
+     * @param winningMask the winning numbers as a {@link TicketMask}
+     * @return the match histogram
+     */
+    public MatchHistogram run(final long ticketCount,
+                              final long winningMask) {
+        return this.run(0, ticketCount, winningMask);
+    }
+
+    /**
+     * Generates the tickets from {@code fromTicket} up to {@code toTicket} and scores them against
+     * {@code winningMask}.
+     * <p>
+     * Running consecutive ranges gives the same tickets as running them all at once, which lets a run be extended a
+     * piece at a time.
+     *
+     * @param fromTicket  the index of the first ticket, a multiple of {@link #BLOCK_SIZE}
+     * @param toTicket    the index after the last ticket
+     * @param winningMask the winning numbers as a {@link TicketMask}
+     * @return the match histogram
+     */
+    public MatchHistogram run(final long fromTicket,
+                              final long toTicket,
+                              final long winningMask) {
+        if (fromTicket % BLOCK_SIZE != 0) {
+            throw new IllegalArgumentException("The first ticket must start a block.");
+        }
+
+        final long blocks = (toTicket + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        return this.pool.invoke(new BlockTask(fromTicket / BLOCK_SIZE, blocks, toTicket, winningMask, null, 0));
+    }
+
+    /**
+     * Generates {@code ticketCount} tickets, scores them against {@code winningMask}, and appends them to
+     * {@code journal}.
+     * <p>
+     * Every block writes its own range of the journal, so the tickets end up in the journal in generation order. The
+     * tickets are only committed to the journal once every block has been written.
+     *
+     * @param ticketCount the number of tickets
+     * @param winningMask the winning numbers as a {@link TicketMask}
+     * @param journal     the journal to append the tickets to
+     * @return the match histogram
+     * @throws IOException if the journal could not be written
+     */
+    public MatchHistogram run(final long ticketCount,
+                              final long winningMask,
+                              final TicketJournal journal) throws IOException {
+        final long blocks = (ticketCount + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        final long first = journal.reserve(ticketCount);
+        final MatchHistogram histogram;
+        try {
+            histogram = this.pool.invoke(new BlockTask(0, blocks, ticketCount, winningMask, journal, first));
+        } catch (final UncheckedIOException e) {
+            journal.release();
+            throw e.getCause();
+        } catch (final RuntimeException | Error e) {
+            journal.release();
+            throw e;
+        }
+        journal.commit(first + ticketCount);
+        return histogram;
+    }
+
+    /**
+     * Returns the random number generator for a block.
+     *
+     * @param block the block index
+     * @return the random number generator
+     */
+    SplittableRandom blockRandom(final long block) {
+        return new SplittableRandom(mix(this.seed + block * GOLDEN_GAMMA));
+    }
+
+    /**
+     * Scrambles the bits of {@code z} so that neighbouring block seeds produce unrelated streams.
+     *
+     * @param z the value
+     * @return the mixed value
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Scores a range of blocks, splitting the range in half until it is small enough to run directly.
+     */
+    private final class BlockTask extends RecursiveTask<MatchHistogram> {
+
+        private static final int BLOCKS_PER_TASK = 4;
+
+        private final long fromBlock;
+        private final long toBlock;
+        private final long ticketCount;
+        private final long winningMask;
+        private final TicketJournal journal; // where to write the tickets, or null to not keep them
+        private final long journalIndex; // the journal index of the first ticket
+
+        private BlockTask(final long fromBlock,
+                          final long toBlock,
+                          final long ticketCount,
+                          final long winningMask,
+                          final TicketJournal journal,
+                          final long journalIndex) {
+            this.fromBlock = fromBlock;
+            this.toBlock = toBlock;
+            this.ticketCount = ticketCount;
+            this.winningMask = winningMask;
+            this.journal = journal;
+            this.journalIndex = journalIndex;
+        }
+
+        @Override
+        protected MatchHistogram compute() {
+            if (this.toBlock - this.fromBlock <= BLOCKS_PER_TASK) {
+                return this.scoreBlocks();
+            }
+
+            final long middle = (this.fromBlock + this.toBlock) >>> 1;
+            final BlockTask left = new BlockTask(this.fromBlock, middle, this.ticketCount, this.winningMask,
+                    this.journal, this.journalIndex);
+            final BlockTask right = new BlockTask(middle, this.toBlock, this.ticketCount, this.winningMask,
+                    this.journal, this.journalIndex);
+            left.fork();
+            final MatchHistogram histogram = right.compute();
+            histogram.merge(left.join());
+            return histogram;
+        }
+
+        private MatchHistogram scoreBlocks() {
+            final MatchHistogram histogram = new MatchHistogram(TICKET_NUMBER_COUNT, 0);
+            final TicketSampler sampler = new TicketSampler();
+            final TicketCodec codec = this.journal == null ? null : new TicketCodec();
+            final int[] ranks = this.journal == null ? null : new int[BLOCK_SIZE];
+            for (long block = this.fromBlock; block < this.toBlock; block++) {
+                // the sampler is reset so that a block's tickets don't depend on which blocks ran before it
+                final SplittableRandom random = blockRandom(block);
+                sampler.reset();
+                final long start = block * BLOCK_SIZE;
+                final int length = (int) (Math.min(this.ticketCount, start + BLOCK_SIZE) - start);
+                for (int i = 0; i < length; i++) {
+                    final long ticket = sampler.nextMask(random);
+                    histogram.add(TicketMask.matches(ticket, this.winningMask));
+                    if (ranks != null) {
+                        ranks[i] = codec.rank(ticket);
+                    }
+                }
+
+                if (this.journal != null) {
+                    try {
+                        this.journal.write(this.journalIndex + start, ranks, 0, length);
+                    } catch (final IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            }
+            return histogram;
+        }
+
+    }
+
+}
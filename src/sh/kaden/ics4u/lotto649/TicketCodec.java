@@ -0,0 +1,142 @@
+package sh.kaden.ics4u.lotto649;
+
+import java.util.Arrays;
+
+/**
+ * Maps tickets to and from their rank in the combinatorial number system.
+ * <p>
+ * With the numbers of a ticket shifted to start at zero and sorted as {@code c1 < c2 < ... < ck}, the rank is
+ * {@code C(c1, 1) + C(c2, 2) + ... + C(ck, k)}. Every combination gets a distinct rank between 0 and
+ * {@code C(n, k) - 1}, so a 6/49 ticket fits in an {@code int} (there are 13,983,816 of them), and sorting ranks sorts
+ * the tickets.
+ */
+public final class TicketCodec {
+
+    private final int min; // the smallest number on a ticket
+    private final int max; // the largest number on a ticket
+    private final int count; // how many numbers are on a ticket
+    private final int[][] binomials; // binomials[n][k] = C(n, k)
+    private final int combinations; // C(max - min + 1, count)
+
+    /**
+     * Constructs {@code TicketCodec}.
+     *
+     * @param min   the smallest number on a ticket
+     * @param max   the largest number on a ticket
+     * @param count how many numbers are on a ticket
+     */
+    public TicketCodec(final int min,
+                       final int max,
+                       final int count) {
+        if (min < 0 || max > TicketMask.MAX_NUMBER || count < 1 || count > max - min + 1) {
+            throw new IllegalArgumentException("Cannot encode " + count + " numbers between " + min + " and " + max + ".");
+        }
+
+        this.min = min;
+        this.max = max;
+        this.count = count;
+
+        final int range = max - min + 1;
+        this.binomials = new int[range + 1][count + 1];
+        for (int n = 0; n <= range; n++) {
+            this.binomials[n][0] = 1;
+            for (int k = 1; k <= Math.min(n, count); k++) {
+                final long binomial = (long) this.binomials[n - 1][k - 1] + this.binomials[n - 1][k];
+                if (binomial > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("C(" + range + ", " + count + ") does not fit in an int.");
+                }
+                this.binomials[n][k] = (int) binomial;
+            }
+        }
+        this.combinations = this.binomials[range][count];
+    }
+
+    /**
+     * Constructs a {@code TicketCodec} for the {@link LottoApp} game.
+     */
+    public TicketCodec() {
+        this(LottoApp.MIN_TICKET_NUMBER, LottoApp.MAX_TICKET_NUMBER, LottoApp.TICKET_NUMBER_COUNT);
+    }
+
+    /**
+     * Returns the rank of a ticket.
+     *
+     * @param mask the ticket as a {@link TicketMask}
+     * @return the rank, between 0 and {@link #combinations()} - 1
+     */
+    public int rank(final long mask) {
+        if (Long.bitCount(mask) != this.count || Long.numberOfTrailingZeros(mask) < this.min
+                || Long.SIZE - 1 - Long.numberOfLeadingZeros(mask) > this.max) {
+            throw new IllegalArgumentException("Not a valid ticket: " + Arrays.toString(TicketMask.decode(mask)));
+        }
+
+        long remaining = mask >>> this.min;
+        int rank = 0;
+        for (int k = 1; k <= this.count; k++) {
+            rank += this.binomials[Long.numberOfTrailingZeros(remaining)][k];
+            remaining &= remaining - 1;
+        }
+        return rank;
+    }
+
+    /**
+     * Returns the ticket with the provided rank.
+     *
+     * @param rank the rank, between 0 and {@link #combinations()} - 1
+     * @return the ticket as a {@link TicketMask}
+     */
+    public long unrank(final int rank) {
+        if (rank < 0 || rank >= this.combinations) {
+            throw new IllegalArgumentException("Rank " + rank + " is out of range.");
+        }
+
+        int remaining = rank;
+        int c = this.max - this.min;
+        long mask = 0;
+        for (int k = this.count; k >= 1; k--) {
+            // find the largest c with C(c, k) <= remaining
+            while (this.binomials[c][k] > remaining) {
+                c--;
+            }
+            remaining -= this.binomials[c][k];
+            mask |= 1L << (c + this.min);
+            c--;
+        }
+        return mask;
+    }
+
+    /**
+     * Returns how many numbers every ticket has in common with {@code winningMask}, indexed by rank.
+     * <p>
+     * Building the table walks every combination once, in rank order, by stepping a bitmask to the next larger value
+     * with the same number of set bits. Once built, scoring a ranked ticket is a single array lookup, which is much
+     * cheaper than {@link #unrank(int) unranking} it when there are many more tickets than combinations.
+     *
+     * @param winningMask the winning numbers as a {@link TicketMask}
+     * @return the number of matches for every rank
+     */
+    public byte[] matchesByRank(final long winningMask) {
+        final byte[] matches = new byte[this.combinations];
+        final long winning = winningMask >>> this.min;
+        long combination = (1L << this.count) - 1; // the combination with rank 0
+        for (int rank = 0; rank < matches.length; rank++) {
+            matches[rank] = (byte) Long.bitCount(combination & winning);
+
+            // step to the next larger mask with the same bit count
+            final long lowest = combination & -combination;
+            final long ripple = combination + lowest;
+            combination = ripple | (((combination ^ ripple) >>> 2) / lowest);
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the number of distinct tickets.
+     *
+     * @return the number of combinations
+     */
+    public int combinations() {
+        return this.combinations;
+    }
+
+}
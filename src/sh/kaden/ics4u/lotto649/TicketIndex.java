@@ -0,0 +1,402 @@
+package sh.kaden.ics4u.lotto649;
+
+import java.util.Arrays;
+
+/**
+ * An inverted index from each lottery number to the tickets that contain it.
+ * <p>
+ * Every number has a posting set of ticket indices, split into chunks of {@value #CHUNK_SIZE} tickets. Like a roaring
+ * bitmap, a chunk is stored as a sorted array of 16-bit offsets while it is sparse, and as a plain bitmap once it holds
+ * more than {@value #MAX_ARRAY_CARDINALITY} tickets; a chunk with no tickets isn't stored at all.
+ * <p>
+ * A query only reads the posting sets of the six winning numbers, so tickets that share no number with the draw are
+ * never visited. Each chunk's postings are added into a bit-sliced counter 64 tickets at a time: array chunks add only
+ * the words their entries fall in, and bitmap chunks only their non-zero words, so a query's work follows the size of
+ * the six posting sets rather than the number of tickets. Whole chunks are skipped when too few of the winning numbers
+ * appear in them to reach the requested match count, and words that too few posting sets touch are skipped the same
+ * way before any counter is read.
+ */
+public final class TicketIndex {
+
+    /**
+     * The number of tickets covered by one chunk of a posting set.
+     */
+    public static final int CHUNK_SIZE = 1 << 16;
+
+    private static final int MAX_ARRAY_CARDINALITY = 4096; // a bitmap chunk takes 8 KiB, the same as 4096 shorts
+    private static final int WORDS_PER_CHUNK = CHUNK_SIZE / Long.SIZE;
+    private static final int COUNTER_BITS = 3; // enough to count up to seven winning numbers
+
+    private final int maxNumber;
+    private final Object[][] postings; // postings[number][chunk] is a short[] array chunk, a long[] bitmap or null
+    private final int[][] cardinalities; // cardinalities[number][chunk] is the number of tickets in that chunk
+    private int size; // the number of tickets indexed
+
+    /**
+     * Constructs an empty {@code TicketIndex}.
+     *
+     * @param maxNumber the largest number that can appear on a ticket
+     */
+    public TicketIndex(final int maxNumber) {
+        this.maxNumber = maxNumber;
+        this.postings = new Object[maxNumber + 1][0];
+        this.cardinalities = new int[maxNumber + 1][0];
+    }
+
+    /**
+     * Builds an index over every ticket in a store, using the store's indices as ticket indices.
+     *
+     * @param store the store
+     * @return the index
+     */
+    public static TicketIndex of(final TicketStore store) {
+        final TicketIndex index = new TicketIndex(LottoApp.MAX_TICKET_NUMBER);
+        for (int i = 0; i < store.size(); i++) {
+            index.add(store.get(i));
+        }
+        return index;
+    }
+
+    /**
+     * Adds a ticket to the index.
+     *
+     * @param mask the ticket as a {@link TicketMask}
+     * @return the index of the ticket
+     */
+    public int add(final long mask) {
+        if (Long.SIZE - Long.numberOfLeadingZeros(mask) > this.maxNumber + 1) {
+            throw new IllegalArgumentException("Ticket " + Arrays.toString(TicketMask.decode(mask))
+                    + " has a number above " + this.maxNumber + ".");
+        }
+        if (this.size == Integer.MAX_VALUE) {
+            throw new IllegalStateException("The ticket index is full.");
+        }
+
+        final int ticket = this.size++;
+        final int chunk = ticket >>> 16;
+        final int offset = ticket & (CHUNK_SIZE - 1);
+        long remaining = mask;
+        while (remaining != 0) {
+            this.addToPosting(Long.numberOfTrailingZeros(remaining), chunk, offset);
+            remaining &= remaining - 1;
+        }
+        return ticket;
+    }
+
+    /**
+     * Returns how many tickets matched each number of winning numbers.
+     *
+     * @param winningMask the winning numbers as a {@link TicketMask}
+     * @return the number of tickets for each match count, indexed by match count
+     */
+    public long[] matchCounts(final long winningMask) {
+        final int[] numbers = winningNumbers(winningMask);
+        final long[] counts = new long[numbers.length + 1];
+        final ChunkCounter counter = new ChunkCounter();
+
+        long matched = 0;
+        for (int chunk = 0; chunk < this.chunkCount(); chunk++) {
+            if (this.countChunk(numbers, chunk, counter) == 0) {
+                continue;
+            }
+
+            for (int word = counter.next(0); word != -1; word = counter.next(word + 1)) {
+                for (int matches = 1; matches <= counter.sets[word]; matches++) {
+                    counts[matches] += Long.bitCount(counter.equalTo(word, matches));
+                }
+            }
+            counter.clear();
+        }
+
+        for (int matches = 1; matches < counts.length; matches++) {
+            matched += counts[matches];
+        }
+        counts[0] = this.size - matched;
+        return counts;
+    }
+
+    /**
+     * Calls {@code consumer} with every ticket that matched at least {@code minMatches} winning numbers, in ticket
+     * order.
+     *
+     * @param winningMask the winning numbers as a {@link TicketMask}
+     * @param minMatches  the fewest matches a ticket needs, at least 1
+     * @param consumer    the consumer
+     */
+    public void forEachMatching(final long winningMask,
+                                final int minMatches,
+                                final MatchConsumer consumer) {
+        if (minMatches < 1) {
+            throw new IllegalArgumentException("At least one match is required, so that unrelated tickets are skipped.");
+        }
+
+        final int[] numbers = winningNumbers(winningMask);
+        final ChunkCounter counter = new ChunkCounter();
+
+        for (int chunk = 0; chunk < this.chunkCount(); chunk++) {
+            if (this.presentIn(numbers, chunk) < minMatches) {
+                continue; // not enough winning numbers in this chunk for any ticket to qualify
+            }
+            this.countChunk(numbers, chunk, counter);
+
+            for (int word = counter.next(0); word != -1; word = counter.next(word + 1)) {
+                if (counter.sets[word] < minMatches) {
+                    continue; // too few posting sets reach this word for any ticket in it to qualify
+                }
+
+                long hits = 0;
+                for (int matches = minMatches; matches <= counter.sets[word]; matches++) {
+                    hits |= counter.equalTo(word, matches);
+                }
+
+                while (hits != 0) {
+                    final int bit = Long.numberOfTrailingZeros(hits);
+                    final int matches = (int) (((counter.ones[word] >>> bit) & 1)
+                            | ((counter.twos[word] >>> bit) & 1) << 1
+                            | ((counter.fours[word] >>> bit) & 1) << 2);
+                    consumer.accept((chunk << 16) | (word << 6) | bit, matches);
+                    hits &= hits - 1;
+                }
+            }
+            counter.clear();
+        }
+    }
+
+    /**
+     * Returns the number of tickets in the index.
+     *
+     * @return the size
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Adds a ticket to the posting set of {@code number}, converting the chunk to a bitmap once it gets too dense.
+     *
+     * @param number the number
+     * @param chunk  the chunk of the ticket
+     * @param offset the offset of the ticket within the chunk
+     */
+    private void addToPosting(final int number,
+                              final int chunk,
+                              final int offset) {
+        if (chunk >= this.postings[number].length) {
+            final int grown = Math.max(chunk + 1, this.postings[number].length * 2);
+            this.postings[number] = Arrays.copyOf(this.postings[number], grown);
+            this.cardinalities[number] = Arrays.copyOf(this.cardinalities[number], grown);
+        }
+
+        final Object container = this.postings[number][chunk];
+        final int cardinality = this.cardinalities[number][chunk];
+        if (container instanceof long[]) {
+            final long[] bitmap = (long[]) container;
+            bitmap[offset >>> 6] |= 1L << offset;
+        } else if (cardinality < MAX_ARRAY_CARDINALITY) {
+            // tickets are added in order, so appending keeps the array sorted
+            short[] array = (short[]) container;
+            if (array == null || cardinality == array.length) {
+                final int grown = array == null ? 4 : Math.min(array.length * 2, MAX_ARRAY_CARDINALITY);
+                array = array == null ? new short[grown] : Arrays.copyOf(array, grown);
+                this.postings[number][chunk] = array;
+            }
+            array[cardinality] = (short) offset;
+        } else {
+            final long[] bitmap = new long[WORDS_PER_CHUNK];
+            toBitmap((short[]) container, cardinality, bitmap);
+            bitmap[offset >>> 6] |= 1L << offset;
+            this.postings[number][chunk] = bitmap;
+        }
+        this.cardinalities[number][chunk] = cardinality + 1;
+    }
+
+    /**
+     * Returns how many of the winning numbers have tickets in {@code chunk}.
+     *
+     * @param numbers the winning numbers
+     * @param chunk   the chunk
+     * @return the number of posting sets with tickets in the chunk
+     */
+    private int presentIn(final int[] numbers,
+                          final int chunk) {
+        int present = 0;
+        for (final int number : numbers) {
+            if (number <= this.maxNumber && chunk < this.postings[number].length
+                    && this.postings[number][chunk] != null) {
+                present++;
+            }
+        }
+        return present;
+    }
+
+    /**
+     * Adds the postings of the winning numbers in {@code chunk} into {@code counter}, reading only the entries of array
+     * chunks and the non-zero words of bitmap chunks.
+     *
+     * @param numbers the winning numbers
+     * @param chunk   the chunk
+     * @param counter an empty counter
+     * @return the number of posting sets with tickets in the chunk
+     */
+    private int countChunk(final int[] numbers,
+                           final int chunk,
+                           final ChunkCounter counter) {
+        int present = 0;
+        for (final int number : numbers) {
+            if (number > this.maxNumber || chunk >= this.postings[number].length) {
+                continue;
+            }
+
+            final Object container = this.postings[number][chunk];
+            if (container instanceof long[]) {
+                final long[] bitmap = (long[]) container;
+                for (int word = 0; word < WORDS_PER_CHUNK; word++) {
+                    if (bitmap[word] != 0) {
+                        counter.add(word, bitmap[word]);
+                    }
+                }
+                present++;
+            } else if (container != null) {
+                // the array is sorted, so entries in the same word are next to each other and added as one mask
+                final short[] array = (short[]) container;
+                final int cardinality = this.cardinalities[number][chunk];
+                int word = (array[0] & 0xFFFF) >>> 6;
+                long bits = 0;
+                for (int i = 0; i < cardinality; i++) {
+                    final int offset = array[i] & 0xFFFF;
+                    if (offset >>> 6 != word) {
+                        counter.add(word, bits);
+                        word = offset >>> 6;
+                        bits = 0;
+                    }
+                    bits |= 1L << offset;
+                }
+                counter.add(word, bits);
+                present++;
+            }
+        }
+        return present;
+    }
+
+    /**
+     * Returns the winning numbers, checking that their match counts fit in the bit-sliced counter.
+     *
+     * @param winningMask the winning numbers as a {@link TicketMask}
+     * @return the winning numbers
+     */
+    private static int[] winningNumbers(final long winningMask) {
+        if (Long.bitCount(winningMask) >= 1 << COUNTER_BITS) {
+            throw new IllegalArgumentException("At most " + ((1 << COUNTER_BITS) - 1) + " winning numbers are supported.");
+        }
+        return TicketMask.decode(winningMask);
+    }
+
+    private int chunkCount() {
+        return (this.size + CHUNK_SIZE - 1) >>> 16;
+    }
+
+    private static void toBitmap(final short[] array,
+                                 final int cardinality,
+                                 final long[] bitmap) {
+        for (int i = 0; i < cardinality; i++) {
+            final int offset = array[i] & 0xFFFF;
+            bitmap[offset >>> 6] |= 1L << offset;
+        }
+    }
+
+    /**
+     * A bit-sliced counter over one chunk, holding a 3-bit match count for every ticket in the words it has touched.
+     */
+    private static final class ChunkCounter {
+
+        private final long[] ones = new long[WORDS_PER_CHUNK]; // the lowest bit of each ticket's count
+        private final long[] twos = new long[WORDS_PER_CHUNK];
+        private final long[] fours = new long[WORDS_PER_CHUNK];
+        private final byte[] sets = new byte[WORDS_PER_CHUNK]; // how many posting sets have tickets in each word
+        private final long[] touched = new long[WORDS_PER_CHUNK / Long.SIZE]; // the words with any count, as a bitmap
+
+        /**
+         * Adds one posting set's tickets in a word to their counts.
+         *
+         * @param word the word index
+         * @param bits the tickets in the word, which must not be zero
+         */
+        private void add(final int word,
+                         final long bits) {
+            final long carryOne = this.ones[word] & bits;
+            this.ones[word] ^= bits;
+            final long carryTwo = this.twos[word] & carryOne;
+            this.twos[word] ^= carryOne;
+            this.fours[word] |= carryTwo;
+            this.sets[word]++;
+            this.touched[word >>> 6] |= 1L << word;
+        }
+
+        /**
+         * Returns the first touched word at or after {@code from}.
+         *
+         * @param from the word to start from
+         * @return the word index, or -1 if there are no more
+         */
+        private int next(final int from) {
+            int block = from >>> 6;
+            if (block >= this.touched.length) {
+                return -1;
+            }
+
+            long bits = this.touched[block] & (-1L << from);
+            while (bits == 0) {
+                if (++block == this.touched.length) {
+                    return -1;
+                }
+                bits = this.touched[block];
+            }
+            return (block << 6) | Long.numberOfTrailingZeros(bits);
+        }
+
+        /**
+         * Returns the tickets in a word whose count equals {@code value}.
+         *
+         * @param word  the word index
+         * @param value the value, between 1 and 7
+         * @return a bitmask of the matching tickets
+         */
+        private long equalTo(final int word,
+                             final int value) {
+            return ((value & 1) != 0 ? this.ones[word] : ~this.ones[word])
+                    & ((value & 2) != 0 ? this.twos[word] : ~this.twos[word])
+                    & ((value & 4) != 0 ? this.fours[word] : ~this.fours[word]);
+        }
+
+        /**
+         * Resets the touched words, ready for the next chunk.
+         */
+        private void clear() {
+            for (int word = this.next(0); word != -1; word = this.next(word + 1)) {
+                this.ones[word] = 0;
+                this.twos[word] = 0;
+                this.fours[word] = 0;
+                this.sets[word] = 0;
+            }
+            Arrays.fill(this.touched, 0);
+        }
+
+    }
+
+    /**
+     * Receives the tickets found by {@link #forEachMatching(long, int, MatchConsumer)}.
+     */
+    @FunctionalInterface
+    public interface MatchConsumer {
+
+        /**
+         * Accepts a matching ticket.
+         *
+         * @param ticketIndex the index of the ticket
+         * @param matches     how many winning numbers the ticket contains
+         */
+        void accept(int ticketIndex, int matches);
+
+    }
+
+}
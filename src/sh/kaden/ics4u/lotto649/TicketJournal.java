@@ -0,0 +1,314 @@
+package sh.kaden.ics4u.lotto649;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * A file of tickets that outlives the program, read and written through memory-mapped buffers.
+ * <p>
+ * The file is a fixed-width binary format: a {@value #HEADER_SIZE}-byte header holding a magic number, the format
+ * version and the ticket count, followed by one little-endian {@code int} {@link TicketCodec} rank per ticket. Tickets
+ * live at a fixed offset, so any number of threads can write their own ranges at once, and a journal can be re-scored
+ * against a new draw by mapping it and reading the ranks in place, without loading any of it onto the heap.
+ */
+public final class TicketJournal implements Closeable {
+
+    /**
+     * The size of the file header in bytes.
+     */
+    public static final int HEADER_SIZE = 16;
+
+    private static final int MAGIC = 0x4C363439; // "L649"
+    private static final int VERSION = 1;
+    private static final int TICKET_SIZE = Integer.BYTES;
+    private static final int COUNT_OFFSET = 8;
+    private static final long TICKETS_PER_REGION = 1 << 22; // 16 MiB of ranks per mapped region when scoring
+
+    private final FileChannel channel;
+    private long size; // the number of tickets written and committed, which is the count in the header
+    private long reserved; // the index after the last reserved ticket, committed or not
+
+    private TicketJournal(final FileChannel channel,
+                          final long size) {
+        this.channel = channel;
+        this.size = size;
+        this.reserved = size;
+    }
+
+    /**
+     * Creates a new, empty journal, replacing any file at {@code path}.
+     *
+     * @param path the path
+     * @return the journal
+     * @throws IOException if the file could not be created
+     */
+    public static TicketJournal create(final Path path) throws IOException {
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        final TicketJournal journal = new TicketJournal(channel, 0);
+        journal.writeHeader();
+        return journal;
+    }
+
+    /**
+     * Opens an existing journal so that it can be scored or appended to.
+     *
+     * @param path the path
+     * @return the journal
+     * @throws IOException if the file could not be read or is not a ticket journal
+     */
+    public static TicketJournal open(final Path path) throws IOException {
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+                // keep reading until the header is full or the file ends
+            }
+            if (header.hasRemaining() || header.getInt(0) != MAGIC) {
+                throw new IOException(path + " is not a ticket journal.");
+            }
+            if (header.getInt(4) != VERSION) {
+                throw new IOException(path + " has unsupported journal version " + header.getInt(4) + ".");
+            }
+
+            final long size = header.getLong(COUNT_OFFSET);
+            if (size < 0) {
+                throw new IOException(path + " has a negative ticket count; the journal is corrupt.");
+            }
+            if (size > (channel.size() - HEADER_SIZE) / TICKET_SIZE) {
+                throw new IOException(path + " is shorter than its " + size + " tickets.");
+            }
+            return new TicketJournal(channel, size);
+        } catch (final IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reserves room for {@code count} more tickets at the end of the journal.
+     * <p>
+     * The reserved range can then be filled by {@link #write(long, int[], int, int)}, from any thread. Reserved
+     * tickets are not counted in the header, or by {@link #size()}, until they are {@link #commit(long) committed}, so
+     * a run that stops part way through never leaves a journal that claims tickets it didn't write.
+     *
+     * @param count the number of tickets
+     * @return the index of the first reserved ticket
+     */
+    public synchronized long reserve(final long count) {
+        final long first = this.reserved;
+        this.reserved += count;
+        return first;
+    }
+
+    /**
+     * Commits every ticket before {@code end}, writing the new ticket count into the header.
+     * <p>
+     * Every ticket up to {@code end} must have been written.
+     *
+     * @param end the index after the last written ticket
+     * @throws IOException if the header could not be written
+     */
+    public synchronized void commit(final long end) throws IOException {
+        if (end > this.reserved) {
+            throw new IndexOutOfBoundsException("Tickets up to " + end + " are not reserved.");
+        }
+
+        if (end > this.size) {
+            this.size = end;
+            this.writeHeader();
+        }
+    }
+
+    /**
+     * Gives up every reserved ticket that hasn't been committed, so the next reservation starts straight after the
+     * committed tickets.
+     */
+    public synchronized void release() {
+        this.reserved = this.size;
+    }
+
+    /**
+     * Writes ranks into the journal, starting at ticket {@code index}.
+     * <p>
+     * The range must already have been {@link #reserve(long) reserved}. Writes to different ranges may run at the same
+     * time.
+     *
+     * @param index  the index of the first ticket to write
+     * @param ranks  the ranks
+     * @param offset the offset of the first rank in {@code ranks}
+     * @param length the number of ranks to write
+     * @throws IOException if the file could not be mapped
+     */
+    public void write(final long index,
+                      final int[] ranks,
+                      final int offset,
+                      final int length) throws IOException {
+        if (index < 0 || index + length > this.reserved()) {
+            throw new IndexOutOfBoundsException("Tickets " + index + " to " + (index + length) + " are not reserved.");
+        }
+
+        final MappedByteBuffer region = this.channel.map(FileChannel.MapMode.READ_WRITE,
+                HEADER_SIZE + index * TICKET_SIZE, (long) length * TICKET_SIZE);
+        region.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().put(ranks, offset, length);
+    }
+
+    /**
+     * Appends ranks to the end of the journal.
+     *
+     * @param ranks  the ranks
+     * @param offset the offset of the first rank in {@code ranks}
+     * @param length the number of ranks to append
+     * @throws IOException if the file could not be grown or mapped
+     */
+    public void append(final int[] ranks,
+                       final int offset,
+                       final int length) throws IOException {
+        final long first = this.reserve(length);
+        try {
+            this.write(first, ranks, offset, length);
+        } catch (final IOException | RuntimeException e) {
+            this.release();
+            throw e;
+        }
+        this.commit(first + length);
+    }
+
+    /**
+     * Scores every ticket in the journal against {@code winningMask}, reading the ranks straight from the mapped file.
+     *
+     * @param codec       the codec the ranks were written with
+     * @param winningMask the winning numbers as a {@link TicketMask}
+     * @param pool        the pool to score on
+     * @return the match histogram
+     * @throws IOException if the file could not be mapped, or holds a rank that no ticket has
+     */
+    public MatchHistogram score(final TicketCodec codec,
+                                final long winningMask,
+                                final ForkJoinPool pool) throws IOException {
+        final byte[] matchesByRank = codec.matchesByRank(winningMask);
+        final long regions = (this.size() + TICKETS_PER_REGION - 1) / TICKETS_PER_REGION;
+        try {
+            return pool.invoke(new ScoreTask(0, regions, this.size(), matchesByRank));
+        } catch (final UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Returns the number of tickets in the journal.
+     *
+     * @return the size
+     */
+    public synchronized long size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the index after the last reserved ticket.
+     *
+     * @return the reserved size
+     */
+    private synchronized long reserved() {
+        return this.reserved;
+    }
+
+    /**
+     * Flushes the committed ticket count and closes the file.
+     *
+     * @throws IOException if the file could not be written
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            this.writeHeader();
+            this.channel.force(true);
+        } finally {
+            this.channel.close();
+        }
+    }
+
+    /**
+     * Writes the header with the current ticket count.
+     *
+     * @throws IOException if the header could not be written
+     */
+    private void writeHeader() throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putLong(this.size).flip();
+        while (header.hasRemaining()) {
+            this.channel.write(header, header.position());
+        }
+    }
+
+    /**
+     * Scores a range of mapped regions, splitting the range in half until it is a single region.
+     */
+    private final class ScoreTask extends RecursiveTask<MatchHistogram> {
+
+        private final long fromRegion;
+        private final long toRegion;
+        private final long ticketCount;
+        private final byte[] matchesByRank;
+
+        private ScoreTask(final long fromRegion,
+                          final long toRegion,
+                          final long ticketCount,
+                          final byte[] matchesByRank) {
+            this.fromRegion = fromRegion;
+            this.toRegion = toRegion;
+            this.ticketCount = ticketCount;
+            this.matchesByRank = matchesByRank;
+        }
+
+        @Override
+        protected MatchHistogram compute() {
+            if (this.toRegion - this.fromRegion > 1) {
+                final long middle = (this.fromRegion + this.toRegion) >>> 1;
+                final ScoreTask left = new ScoreTask(this.fromRegion, middle, this.ticketCount, this.matchesByRank);
+                final ScoreTask right = new ScoreTask(middle, this.toRegion, this.ticketCount, this.matchesByRank);
+                left.fork();
+                final MatchHistogram histogram = right.compute();
+                histogram.merge(left.join());
+                return histogram;
+            }
+
+            final MatchHistogram histogram = new MatchHistogram(LottoApp.TICKET_NUMBER_COUNT, 0);
+            if (this.fromRegion == this.toRegion) {
+                return histogram;
+            }
+
+            final long first = this.fromRegion * TICKETS_PER_REGION;
+            final int count = (int) Math.min(TICKETS_PER_REGION, this.ticketCount - first);
+            final IntBuffer ranks;
+            try {
+                ranks = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + first * TICKET_SIZE,
+                        (long) count * TICKET_SIZE).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            for (int i = 0; i < count; i++) {
+                final int rank = ranks.get(i);
+                if (rank < 0 || rank >= this.matchesByRank.length) {
+                    throw new UncheckedIOException(new IOException("Ticket " + (first + i) + " has rank " + rank
+                            + ", which no ticket has; the journal is corrupt."));
+                }
+                histogram.add(this.matchesByRank[rank]);
+            }
+            return histogram;
+        }
+
+    }
+
+}
@@ -0,0 +1,76 @@
+package sh.kaden.ics4u.lotto649;
+
+/**
+ * Encodes lottery tickets as {@code long} bitmasks.
+ * <p>
+ * Bit {@code n} of the mask is set when the ticket contains the number {@code n}. Any number between 0 and 63 fits, so
+ * a 6/49 ticket is a single primitive, and scoring it against the winning numbers is one AND and one popcount.
+ */
+public final class TicketMask {
+
+    /**
+     * The largest number that can be stored in a ticket mask.
+     */
+    public static final int MAX_NUMBER = Long.SIZE - 1;
+
+    private TicketMask() {
+    }
+
+    /**
+     * Encodes an array of ticket numbers into a bitmask.
+     *
+     * @param numbers the ticket numbers, each between 0 and {@link #MAX_NUMBER}
+     * @return the ticket mask
+     */
+    public static long encode(final int[] numbers) {
+        long mask = 0;
+        for (final int number : numbers) {
+            if (number < 0 || number > MAX_NUMBER) {
+                throw new IllegalArgumentException("Ticket number " + number + " does not fit in a ticket mask.");
+            }
+            mask |= 1L << number;
+        }
+        return mask;
+    }
+
+    /**
+     * Decodes a bitmask into its ticket numbers, in ascending order.
+     *
+     * @param mask the ticket mask
+     * @return the ticket numbers
+     */
+    public static int[] decode(final long mask) {
+        final int[] numbers = new int[Long.bitCount(mask)];
+        long remaining = mask;
+        for (int i = 0; i < numbers.length; i++) {
+            numbers[i] = Long.numberOfTrailingZeros(remaining);
+            remaining &= remaining - 1; // clear the lowest set bit
+        }
+        return numbers;
+    }
+
+    /**
+     * Returns how many numbers two tickets have in common.
+     *
+     * @param ticket  the ticket mask
+     * @param winning the winning ticket mask
+     * @return the number of matches
+     */
+    public static int matches(final long ticket,
+                              final long winning) {
+        return Long.bitCount(ticket & winning);
+    }
+
+    /**
+     * Returns true if the ticket contains the provided number.
+     *
+     * @param mask   the ticket mask
+     * @param number the number
+     * @return true if the number is on the ticket
+     */
+    public static boolean contains(final long mask,
+                                   final int number) {
+        return number >= 0 && number <= MAX_NUMBER && (mask & (1L << number)) != 0;
+    }
+
+}
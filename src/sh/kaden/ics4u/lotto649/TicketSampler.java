@@ -0,0 +1,123 @@
+package sh.kaden.ics4u.lotto649;
+
+import java.util.SplittableRandom;
+
+/**
+ * Draws uniformly random tickets in a fixed number of steps.
+ * <p>
+ * The sampler keeps every possible number in a scratch pool and runs a partial Fisher-Yates shuffle over it: the
+ * {@code i}th number is swapped in from a random position at or after {@code i}. That takes exactly one random number
+ * per ticket number, never retries, and never allocates. A partial shuffle of any arrangement of the pool gives a
+ * uniformly random combination, so the pool doesn't need to be put back in order between tickets.
+ * <p>
+ * A sampler is not thread-safe; give each thread its own.
+ */
+public final class TicketSampler {
+
+    private final int[] pool; // every number that can be drawn, in whatever order the last shuffle left them
+    private final int min; // the smallest number that can be drawn
+    private final int count; // how many numbers to draw per ticket
+
+    /**
+     * Constructs {@code TicketSampler}.
+     *
+     * @param min   the smallest number that can be drawn
+     * @param max   the largest number that can be drawn
+     * @param count how many numbers to draw per ticket
+     */
+    public TicketSampler(final int min,
+                         final int max,
+                         final int count) {
+        if (count > max - min + 1) {
+            throw new IllegalArgumentException("Cannot draw " + count + " numbers between " + min + " and " + max + ".");
+        }
+
+        this.pool = new int[max - min + 1];
+        this.min = min;
+        this.count = count;
+        this.reset();
+    }
+
+    /**
+     * Constructs a {@code TicketSampler} for the {@link LottoApp} game.
+     */
+    public TicketSampler() {
+        this(LottoApp.MIN_TICKET_NUMBER, LottoApp.MAX_TICKET_NUMBER, LottoApp.TICKET_NUMBER_COUNT);
+    }
+
+    /**
+     * Puts the pool back in ascending order.
+     * <p>
+     * This isn't needed for uniformity, but it makes the tickets drawn after it depend only on {@code random}.
+     */
+    public void reset() {
+        for (int i = 0; i < this.pool.length; i++) {
+            this.pool[i] = this.min + i;
+        }
+    }
+
+    /**
+     * Draws a ticket into {@code numbers}, in the order the numbers were drawn.
+     *
+     * @param random  the random number generator
+     * @param numbers the array to fill, with at least {@link #count()} elements
+     */
+    public void next(final SplittableRandom random,
+                     final int[] numbers) {
+        this.next(random, numbers, this.count);
+    }
+
+    /**
+     * Draws a ticket and copies its first {@code length} numbers into {@code numbers}.
+     *
+     * @param random  the random number generator
+     * @param numbers the array to fill, with at least {@code length} elements
+     * @param length  how many of the drawn numbers to copy, at most {@link #count()}
+     */
+    public void next(final SplittableRandom random,
+                     final int[] numbers,
+                     final int length) {
+        this.shuffle(random);
+        System.arraycopy(this.pool, 0, numbers, 0, length);
+    }
+
+    /**
+     * Draws a ticket as a {@link TicketMask}.
+     *
+     * @param random the random number generator
+     * @return the ticket mask
+     */
+    public long nextMask(final SplittableRandom random) {
+        this.shuffle(random);
+        long mask = 0;
+        for (int i = 0; i < this.count; i++) {
+            mask |= 1L << this.pool[i];
+        }
+        return mask;
+    }
+
+    /**
+     * Returns how many numbers are drawn per ticket.
+     *
+     * @return the count
+     */
+    public int count() {
+        return this.count;
+    }
+
+    /**
+     * Moves {@link #count} random numbers to the front of the pool.
+     *
+     * @param random the random number generator
+     */
+    private void shuffle(final SplittableRandom random) {
+        final int[] pool = this.pool;
+        for (int i = 0; i < this.count; i++) {
+            final int j = random.nextInt(i, pool.length);
+            final int swap = pool[i];
+            pool[i] = pool[j];
+            pool[j] = swap;
+        }
+    }
+
+}
@@ -0,0 +1,127 @@
+package sh.kaden.ics4u.lotto649;
+
+import java.util.SplittableRandom;
+
+import static sh.kaden.ics4u.lotto649.LottoApp.MAX_TICKET_NUMBER;
+import static sh.kaden.ics4u.lotto649.LottoApp.MIN_TICKET_NUMBER;
+import static sh.kaden.ics4u.lotto649.LottoApp.TICKET_NUMBER_COUNT;
+
+/**
+ * Checks that {@link TicketSampler} draws every combination with the same probability.
+ * <p>
+ * Millions of tickets are drawn, and Pearson's chi-squared test is run on how often each number, each pair of numbers
+ * and each whole combination (by its {@link TicketCodec} rank) shows up. A uniform sampler puts every number on 6/49 of
+ * the tickets, every pair on 15/1176 of them and every combination on 1/C(49, 6) of them, so any bias pushes the
+ * statistic far past its expected value. The program exits with status 1 if any test fails.
+ */
+public class TicketSamplerCheck {
+
+    private static final long DEFAULT_TICKETS = 10_000_000;
+    private static final double MAX_Z_SCORE = 5; // about one false failure in three million runs
+
+    /**
+     * The command-line entrypoint for {@code TicketSamplerCheck}.
+     *
+     * @param args the program arguments, optionally the number of tickets and the seed
+     */
+    public static void main(final String[] args) {
+        final long tickets = args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_TICKETS;
+        final long seed = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
+
+        final int range = MAX_TICKET_NUMBER - MIN_TICKET_NUMBER + 1;
+        final long[] numberCounts = new long[range];
+        final long[] pairCounts = new long[range * range];
+        final TicketCodec codec = new TicketCodec();
+        final int[] rankCounts = new int[codec.combinations()];
+        final TicketSampler sampler = new TicketSampler();
+        final SplittableRandom random = new SplittableRandom(seed);
+        final int[] numbers = new int[TICKET_NUMBER_COUNT];
+
+        for (long t = 0; t < tickets; t++) {
+            sampler.next(random, numbers);
+            rankCounts[codec.rank(TicketMask.encode(numbers))]++;
+            for (int i = 0; i < numbers.length; i++) {
+                final int a = numbers[i] - MIN_TICKET_NUMBER;
+                numberCounts[a]++;
+                for (int j = 0; j < numbers.length; j++) {
+                    final int b = numbers[j] - MIN_TICKET_NUMBER;
+                    if (a < b) {
+                        pairCounts[a * range + b]++;
+                    }
+                }
+            }
+        }
+
+        final double numberExpected = (double) tickets * TICKET_NUMBER_COUNT / range;
+        final double pairExpected = (double) tickets * pairs(TICKET_NUMBER_COUNT) / pairs(range);
+
+        double numberChiSquared = 0;
+        for (final long count : numberCounts) {
+            numberChiSquared += square(count - numberExpected) / numberExpected;
+        }
+
+        double pairChiSquared = 0;
+        for (int a = 0; a < range; a++) {
+            for (int b = a + 1; b < range; b++) {
+                pairChiSquared += square(pairCounts[a * range + b] - pairExpected) / pairExpected;
+            }
+        }
+
+        final double rankExpected = (double) tickets / codec.combinations();
+        double rankChiSquared = 0;
+        for (final int count : rankCounts) {
+            rankChiSquared += square(count - rankExpected) / rankExpected;
+        }
+
+        System.out.println("Drew " + tickets + " tickets with seed " + seed + ".");
+        final boolean numbersPassed = report("numbers", numberChiSquared, range - 1);
+        final boolean pairsPassed = report("pairs", pairChiSquared, (int) pairs(range) - 1);
+        final boolean ranksPassed = report("combinations", rankChiSquared, codec.combinations() - 1);
+
+        if (!numbersPassed || !pairsPassed || !ranksPassed) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Prints the result of a chi-squared test.
+     *
+     * @param name             the name of the test
+     * @param chiSquared       the chi-squared statistic
+     * @param degreesOfFreedom the degrees of freedom
+     * @return true if the test passed
+     */
+    private static boolean report(final String name,
+                                  final double chiSquared,
+                                  final int degreesOfFreedom) {
+        final double z = zScore(chiSquared, degreesOfFreedom);
+        final boolean passed = Math.abs(z) <= MAX_Z_SCORE;
+        System.out.printf("Chi-squared for %s: %.1f with %d degrees of freedom (z = %.2f) - %s\n",
+                name, chiSquared, degreesOfFreedom, z, passed ? "uniform" : "NOT uniform");
+        return passed;
+    }
+
+    /**
+     * Converts a chi-squared statistic to an approximate standard normal score using the Wilson-Hilferty
+     * transformation.
+     *
+     * @param chiSquared       the chi-squared statistic
+     * @param degreesOfFreedom the degrees of freedom
+     * @return the z score
+     */
+    static double zScore(final double chiSquared,
+                         final int degreesOfFreedom) {
+        final double k = degreesOfFreedom;
+        final double variance = 2 / (9 * k);
+        return (Math.cbrt(chiSquared / k) - (1 - variance)) / Math.sqrt(variance);
+    }
+
+    private static long pairs(final int n) {
+        return (long) n * (n - 1) / 2;
+    }
+
+    private static double square(final double x) {
+        return x * x;
+    }
+
+}
@@ -0,0 +1,149 @@
+package sh.kaden.ics4u.lotto649;
+
+import java.util.Arrays;
+
+/**
+ * A growable column of tickets, each stored as its {@link TicketCodec} rank in a single {@code int}.
+ * <p>
+ * Compared to one {@code int[]} per ticket, which costs an object header, a length and six numbers, every ticket here
+ * costs four bytes. Because ranks order tickets, sorting and removing duplicates are plain primitive array operations.
+ */
+public final class TicketStore {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final TicketCodec codec;
+    private int[] ranks;
+    private int size;
+
+    /**
+     * Constructs {@code TicketStore}.
+     *
+     * @param codec    the codec used to rank tickets
+     * @param capacity the number of tickets to make room for up front
+     */
+    public TicketStore(final TicketCodec codec,
+                       final int capacity) {
+        this.codec = codec;
+        this.ranks = new int[Math.max(capacity, 1)];
+    }
+
+    /**
+     * Constructs an empty {@code TicketStore}.
+     *
+     * @param codec the codec used to rank tickets
+     */
+    public TicketStore(final TicketCodec codec) {
+        this(codec, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Adds a ticket to the end of the store.
+     *
+     * @param mask the ticket as a {@link TicketMask}
+     * @return the index of the ticket
+     */
+    public int add(final long mask) {
+        return this.addRank(this.codec.rank(mask));
+    }
+
+    /**
+     * Adds an already ranked ticket to the end of the store.
+     *
+     * @param rank the rank of the ticket
+     * @return the index of the ticket
+     */
+    public int addRank(final int rank) {
+        if (this.size == this.ranks.length) {
+            final int grown = (int) Math.min(Integer.MAX_VALUE - 8, this.ranks.length * 2L);
+            if (grown == this.size) {
+                throw new IllegalStateException("The ticket store is full.");
+            }
+            this.ranks = Arrays.copyOf(this.ranks, grown);
+        }
+
+        this.ranks[this.size] = rank;
+        return this.size++;
+    }
+
+    /**
+     * Returns the ticket at {@code index}.
+     *
+     * @param index the ticket index
+     * @return the ticket as a {@link TicketMask}
+     */
+    public long get(final int index) {
+        return this.codec.unrank(this.rank(index));
+    }
+
+    /**
+     * Returns the rank of the ticket at {@code index}.
+     *
+     * @param index the ticket index
+     * @return the rank
+     */
+    public int rank(final int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Ticket " + index + " is out of range for " + this.size + " tickets.");
+        }
+        return this.ranks[index];
+    }
+
+    /**
+     * Sorts the tickets by rank.
+     */
+    public void sort() {
+        Arrays.sort(this.ranks, 0, this.size);
+    }
+
+    /**
+     * Sorts the tickets and removes duplicates.
+     *
+     * @return the number of tickets removed
+     */
+    public int deduplicate() {
+        this.sort();
+        if (this.size == 0) {
+            return 0;
+        }
+
+        int unique = 1;
+        for (int i = 1; i < this.size; i++) {
+            if (this.ranks[i] != this.ranks[unique - 1]) {
+                this.ranks[unique++] = this.ranks[i];
+            }
+        }
+
+        final int removed = this.size - unique;
+        this.size = unique;
+        return removed;
+    }
+
+    /**
+     * Returns the number of tickets in the store.
+     *
+     * @return the size
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the codec used to rank tickets.
+     *
+     * @return the codec
+     */
+    public TicketCodec codec() {
+        return this.codec;
+    }
+
+    /**
+     * Returns a copy of the ranks in the store.
+     *
+     * @return the ranks
+     */
+    public int[] toRankArray() {
+        return Arrays.copyOf(this.ranks, this.size);
+    }
+
+}
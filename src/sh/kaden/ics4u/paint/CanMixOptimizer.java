@@ -0,0 +1,266 @@
+package sh.kaden.ics4u.paint;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds the cheapest mix of paint cans that covers an area, from a catalogue of can sizes and prices.
+ * <p>
+ * Areas are counted in whole units: the largest number of hundredths of a square meter that divides every can size.
+ * The cheapest cost to cover {@code a} units is then a covering knapsack, the cheapest of each can's price plus the
+ * cheapest cost to cover what that can leaves, kept in a table of {@code long} cents with the can chosen at each
+ * amount. The table only grows, so it is shared by every later query, and a query the table already covers is a walk
+ * back through the chosen cans.
+ * <p>
+ * The table never needs to grow past {@code (b - 1) * m} units, where {@code b} is the size of the can with the best
+ * price per unit and {@code m} the largest size. Any {@code b} other cans contain a group whose sizes add up to a
+ * multiple of {@code b}, which the best can covers for no more money, so a cheapest mix never needs more than
+ * {@code b - 1} other cans. Past that amount a cheapest mix always includes a best can, so large orders are filled with
+ * best cans down to the table and cost no more to answer than small ones. The table usually settles much sooner: once
+ * every amount across the width of the largest can is a best can more than the amount {@code b} below it, every larger
+ * amount is too, so the table stops growing there.
+ * <p>
+ * Sizes that share no coarse unit, like 40 m^2 and a 3.79 m^2 gallon, can put that bound past the
+ * {@value #MAX_TABLE} amounts the table may hold. The table then stops at that size instead, and larger orders are
+ * filled with best cans down to it, which may cost a little more than the cheapest mix. Orders the table covers are
+ * still exact, and so is every order once the table settles.
+ */
+public final class CanMixOptimizer {
+
+    private static final double HUNDREDTHS = 100; // units of area and money per meter squared and per dollar
+    private static final int MAX_TABLE = 1 << 22; // the most amounts kept; about 48 MiB
+
+    private final double[] areas; // meters squared covered by each can
+    private final double[] prices; // dollars per can
+    private final int[] sizes; // units covered by each can
+    private final long[] cents; // cents per can
+    private final long unit; // hundredths of a meter squared per unit
+    private final int best; // the can with the lowest price per unit
+    private final int largest; // the size of the largest can
+    private int limit; // past this many units, a cheapest mix always includes the best can
+    private int settled; // how many amounts in a row have been a best can more than the amount b below
+
+    private long[] costs = {0}; // the cheapest cost in cents to cover each number of units
+    private int[] choices = {-1}; // the last can added in the cheapest mix for each number of units
+
+    /**
+     * Constructs {@code CanMixOptimizer}.
+     *
+     * @param areas  the area each can covers, in meters squared
+     * @param prices the price of each can, in dollars
+     * @throws IllegalArgumentException if the catalogue is empty, or a size or price is invalid
+     */
+    public CanMixOptimizer(final double[] areas,
+                           final double[] prices) {
+        if (areas.length == 0 || areas.length != prices.length) {
+            throw new IllegalArgumentException("There must be a price for each can, and at least one can.");
+        }
+
+        final long[] hundredths = new long[areas.length];
+        long unit = 0;
+        for (int i = 0; i < areas.length; i++) {
+            if (!(areas[i] > 0) || Double.isInfinite(areas[i]) || !(prices[i] >= 0) || Double.isInfinite(prices[i])) {
+                throw new IllegalArgumentException("A can of " + areas[i] + " m^2 at $" + prices[i] + " isn't valid.");
+            }
+            hundredths[i] = Math.max(1, Math.round(areas[i] * HUNDREDTHS));
+            unit = gcd(unit, hundredths[i]);
+        }
+
+        this.areas = areas.clone();
+        this.prices = prices.clone();
+        this.sizes = new int[areas.length];
+        this.cents = new long[areas.length];
+        this.unit = unit;
+
+        int best = 0;
+        int largest = 0;
+        for (int i = 0; i < areas.length; i++) {
+            final long size = hundredths[i] / unit;
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("A can of " + areas[i] + " m^2 is too large next to the others.");
+            }
+            this.sizes[i] = (int) size;
+            this.cents[i] = Math.round(prices[i] * HUNDREDTHS);
+            largest = Math.max(largest, this.sizes[i]);
+            if (this.cents[i] * this.sizes[best] < this.cents[best] * this.sizes[i]) {
+                best = i;
+            }
+        }
+        this.best = best;
+        this.largest = largest;
+
+        this.limit = (int) Math.min((long) (this.sizes[best] - 1) * largest, MAX_TABLE - 1);
+    }
+
+    /**
+     * Parses the {@code --cans} option, removing it from {@code args}.
+     * <p>
+     * The catalogue is a comma-separated list of {@code area:price} pairs, like {@code 40:52.75,10:16.50}.
+     *
+     * @param args  the program arguments, which are changed
+     * @param area  the area of the one can used without the option
+     * @param price the price of the one can used without the option
+     * @return the optimizer
+     */
+    static CanMixOptimizer option(final List<String> args,
+                                  final double area,
+                                  final double price) {
+        final int index = args.indexOf("--cans");
+        if (index == -1) {
+            return new CanMixOptimizer(new double[]{area}, new double[]{price});
+        }
+        if (index + 1 >= args.size()) {
+            System.out.println("--cans needs a list of cans, like 40:52.75,10:16.50");
+            System.exit(1);
+        }
+
+        final String catalogue = args.remove(index + 1);
+        args.remove(index);
+        final String[] cans = catalogue.split(",");
+        final double[] areas = new double[cans.length];
+        final double[] prices = new double[cans.length];
+        try {
+            for (int i = 0; i < cans.length; i++) {
+                final int colon = cans[i].indexOf(':');
+                if (colon == -1) {
+                    throw new NumberFormatException();
+                }
+                areas[i] = Double.parseDouble(cans[i].substring(0, colon));
+                prices[i] = Double.parseDouble(cans[i].substring(colon + 1));
+            }
+        } catch (final NumberFormatException e) {
+            System.out.println("'" + catalogue + "' isn't a valid list of cans, like 40:52.75,10:16.50");
+            System.exit(1);
+        }
+
+        try {
+            return new CanMixOptimizer(areas, prices);
+        } catch (final IllegalArgumentException e) {
+            System.out.println("'" + catalogue + "' isn't a valid list of cans: " + e.getMessage());
+            System.exit(1);
+            return null;
+        }
+    }
+
+    /**
+     * Finds the cheapest mix of cans that covers an area.
+     *
+     * @param area   the area to cover, in meters squared
+     * @param counts where to write the number of each can in the mix, in catalogue order
+     * @return the cost of the mix in cents
+     */
+    public synchronized long cheapest(final double area,
+                                      final int[] counts) {
+        Arrays.fill(counts, 0, this.sizes.length, 0);
+        if (!(area > 0)) {
+            return 0;
+        }
+
+        // round up to whole hundredths, ignoring the error from adding up the area, then to whole units
+        final long hundredths = (long) Math.ceil(area * HUNDREDTHS - 1e-6);
+        long units = (hundredths + this.unit - 1) / this.unit;
+
+        if (units >= this.costs.length && this.costs.length <= this.limit) {
+            this.grow((int) Math.min(units, this.limit)); // may find a lower limit
+        }
+
+        long cost = 0;
+        if (units > this.limit) {
+            final long extra = (units - this.limit + this.sizes[this.best] - 1) / this.sizes[this.best];
+            counts[this.best] += (int) extra;
+            cost += extra * this.cents[this.best];
+            units = Math.max(0, units - extra * this.sizes[this.best]);
+        }
+
+        int amount = (int) units;
+        cost += this.costs[amount];
+        while (amount > 0) {
+            final int can = this.choices[amount];
+            counts[can]++;
+            amount = Math.max(0, amount - this.sizes[can]);
+        }
+        return cost;
+    }
+
+    /**
+     * Returns the number of cans in the catalogue.
+     *
+     * @return the catalogue size
+     */
+    public int cans() {
+        return this.sizes.length;
+    }
+
+    /**
+     * Returns the area a can covers.
+     *
+     * @param can the index of the can in the catalogue
+     * @return the area in meters squared
+     */
+    public double area(final int can) {
+        return this.areas[can];
+    }
+
+    /**
+     * Returns the price of a can.
+     *
+     * @param can the index of the can in the catalogue
+     * @return the price in dollars
+     */
+    public double price(final int can) {
+        return this.prices[can];
+    }
+
+    /**
+     * Extends the table of cheapest costs to cover at least {@code amount} units, or until it settles.
+     *
+     * @param amount the number of units, at most the limit
+     */
+    private void grow(final int amount) {
+        final int filled = this.costs.length;
+        final int length = (int) Math.min((long) this.limit + 1, Math.max(amount + 1L, filled * 2L));
+        this.costs = Arrays.copyOf(this.costs, length);
+        this.choices = Arrays.copyOf(this.choices, length);
+
+        final int bestSize = this.sizes[this.best];
+        final long bestCents = this.cents[this.best];
+        for (int a = filled; a < length; a++) {
+            long cheapest = Long.MAX_VALUE;
+            int choice = 0;
+            for (int can = 0; can < this.sizes.length; can++) {
+                final long cost = this.cents[can] + this.costs[Math.max(0, a - this.sizes[can])];
+                if (cost < cheapest) {
+                    cheapest = cost;
+                    choice = can;
+                }
+            }
+            this.costs[a] = cheapest;
+            this.choices[a] = choice;
+
+            // past here every amount only needs one more best can than the amount below it
+            if (a >= bestSize + this.largest && cheapest == this.costs[a - bestSize] + bestCents) {
+                if (++this.settled >= this.largest) {
+                    this.limit = a;
+                    this.costs = Arrays.copyOf(this.costs, a + 1);
+                    this.choices = Arrays.copyOf(this.choices, a + 1);
+                    return;
+                }
+            } else {
+                this.settled = 0;
+            }
+        }
+    }
+
+    /**
+     * Finds the greatest common divisor of two numbers.
+     *
+     * @param a the first number, or zero
+     * @param b the second number
+     * @return the greatest common divisor
+     */
+    private static long gcd(final long a,
+                            final long b) {
+        return a == 0 ? b : gcd(b % a, a);
+    }
+
+}
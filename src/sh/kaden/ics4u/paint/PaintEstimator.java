@@ -0,0 +1,145 @@
+package sh.kaden.ics4u.paint;
+
+import sh.kaden.ics4u.geometry.Cuboid;
+
+import java.util.Arrays;
+
+/**
+ * Estimates the paint for a whole job of many rooms, each with any number of openings.
+ * <p>
+ * Rooms and openings are stored as columns. The paintable area of a room is its total surface area less the face of
+ * each of its openings, which is the opening's length by its height; an opening's width is its depth into the wall and
+ * doesn't change the paint. {@link #paintableAreas(double[])} calculates every room with the {@link Cuboid} array
+ * method, then subtracts every opening from its room in a single pass, so measuring a job of thousands of rooms
+ * allocates nothing and takes well under a millisecond. The job is then costed as a whole by a {@link CanMixOptimizer},
+ * so leftover paint from one room goes toward the next.
+ */
+public final class PaintEstimator {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private double[] lengths = new double[INITIAL_CAPACITY];
+    private double[] widths = new double[INITIAL_CAPACITY];
+    private double[] heights = new double[INITIAL_CAPACITY];
+    private int rooms;
+
+    private int[] openingRooms = new int[INITIAL_CAPACITY]; // the room each opening is in
+    private double[] openingAreas = new double[INITIAL_CAPACITY]; // the face area of each opening
+    private int openings;
+
+    /**
+     * Adds a room.
+     *
+     * @param length the length
+     * @param width  the width
+     * @param height the height
+     * @return the index of the room, for adding its openings
+     */
+    public int addRoom(final double length,
+                       final double width,
+                       final double height) {
+        if (this.rooms == this.lengths.length) {
+            final int capacity = this.rooms * 2;
+            this.lengths = Arrays.copyOf(this.lengths, capacity);
+            this.widths = Arrays.copyOf(this.widths, capacity);
+            this.heights = Arrays.copyOf(this.heights, capacity);
+        }
+
+        this.lengths[this.rooms] = length;
+        this.widths[this.rooms] = width;
+        this.heights[this.rooms] = height;
+        return this.rooms++;
+    }
+
+    /**
+     * Adds an opening, like a door or a window, that isn't painted.
+     *
+     * @param room   the index of the room the opening is in
+     * @param length the length of the opening along the wall
+     * @param height the height of the opening
+     */
+    public void addOpening(final int room,
+                           final double length,
+                           final double height) {
+        if (room < 0 || room >= this.rooms) {
+            throw new IndexOutOfBoundsException("There is no room " + room + "; there are " + this.rooms + " rooms.");
+        }
+
+        if (this.openings == this.openingRooms.length) {
+            final int capacity = this.openings * 2;
+            this.openingRooms = Arrays.copyOf(this.openingRooms, capacity);
+            this.openingAreas = Arrays.copyOf(this.openingAreas, capacity);
+        }
+
+        this.openingRooms[this.openings] = room;
+        this.openingAreas[this.openings] = length * height;
+        this.openings++;
+    }
+
+    /**
+     * Returns the number of rooms.
+     *
+     * @return the room count
+     */
+    public int rooms() {
+        return this.rooms;
+    }
+
+    /**
+     * Returns the number of openings across every room.
+     *
+     * @return the opening count
+     */
+    public int openings() {
+        return this.openings;
+    }
+
+    /**
+     * Removes every room and opening, keeping the arrays for the next job.
+     */
+    public void clear() {
+        this.rooms = 0;
+        this.openings = 0;
+    }
+
+    /**
+     * Calculates the paintable area of every room.
+     *
+     * @param paintableAreas where to write the area of each room, at the room's index
+     * @return the paintable area of the whole job
+     */
+    public double paintableAreas(final double[] paintableAreas) {
+        if (paintableAreas.length < this.rooms) {
+            throw new IllegalArgumentException("Output holds " + paintableAreas.length + " rooms but the job has "
+                    + this.rooms);
+        }
+
+        Cuboid.surfaceAreas(this.lengths, this.widths, this.heights, paintableAreas, 0, this.rooms);
+        for (int i = 0; i < this.openings; i++) {
+            paintableAreas[this.openingRooms[i]] -= this.openingAreas[i];
+        }
+
+        double total = 0;
+        for (int i = 0; i < this.rooms; i++) {
+            total += paintableAreas[i];
+        }
+        return total;
+    }
+
+    /**
+     * Calculates the paintable area of the whole job.
+     *
+     * @return the paintable area
+     */
+    public double paintableArea() {
+        double total = 0;
+        for (int i = 0; i < this.rooms; i++) {
+            total += Cuboid.surfaceArea(this.lengths[i], this.widths[i], this.heights[i]);
+        }
+        for (int i = 0; i < this.openings; i++) {
+            total -= this.openingAreas[i];
+        }
+        return total;
+    }
+
+}
@@ -1,7 +1,20 @@
 package sh.kaden.ics4u.paint;
 
+import sh.kaden.ics4u.geometry.CuboidSolver;
+import sh.kaden.ics4u.io.BatchRunner;
+import sh.kaden.ics4u.io.ErrorSink;
+import sh.kaden.ics4u.io.ColumnarFile;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.file.Paths;
 import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * A utility to find the required paint for a room.
@@ -12,13 +25,253 @@ public class PaintTool {
     private static final double PAINT_CAN_AREA = 40; // meters squared
     private static final DecimalFormat COST_FORMAT = new DecimalFormat("$##.00");
 
+    private static final Scanner SCANNER = new Scanner(System.in); // shared, so buffered input isn't lost between questions
+    private static final String[] PARTS = {"room", "door", "window A", "window B"};
+    private static final int JOB_COLUMNS = 4; // kind, length, width, height
+    private static final int JOB_ROOM = 0; // the kind of a row that starts a room
+    private static final int JOB_OPENING = 1; // the kind of a row that is an opening in the last room
+
     /**
      * {@code PaintTool}'s entrypoint.
+     * <p>
+     * With {@code --batch <input> [output] [errors]}, every row in the input, which is either comma-separated text or a
+     * {@link ColumnarFile}, is calculated without asking anything. A row has 12 columns: the length, height and width
+     * of the room, then the length, height and width of the door, window A and window B. The width of a door or
+     * window is its depth into the wall, so only its length by its height is taken off the room; it is read, but not
+     * asked for interactively. With {@code --job <input>
+     * [output] [errors]}, a whole job of rooms is costed with a {@link PaintEstimator}: each row is a room, as
+     * {@code 0,length,width,height}, or an opening in the room above it, as {@code 1,length,width,height}. The area of
+     * each room goes to the output, and the total for the job is printed. With {@code --solve <input> [output]
+     * [errors]}, each row of the input is a target room volume, and the room with the least surface area to paint that
+     * holds it is found with a {@link CuboidSolver}, within the bounds given by {@code --min-length},
+     * {@code --max-length}, {@code --min-width}, {@code --max-width}, {@code --min-height} and {@code --max-height}.
+     * <p>
+     * In every mode, {@code --cans <area:price,...>} gives a catalogue of can sizes, and the paint is bought as the
+     * cheapest mix of them found by a {@link CanMixOptimizer}. Without it, every can covers {@value #PAINT_CAN_AREA}
+     * m^2 for ${@value #PAINT_CAN_COST}.
      *
      * @param args the cli args
      */
     public static void main(final String[] args) {
-        new PaintTool();
+        final List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        final CanMixOptimizer cans = CanMixOptimizer.option(arguments, PAINT_CAN_AREA, PAINT_CAN_COST);
+        final String mode = arguments.isEmpty() ? "" : arguments.get(0);
+        final String[] rest = arguments.subList(Math.min(1, arguments.size()), arguments.size()).toArray(new String[0]);
+
+        if (mode.equals("--batch")) {
+            runBatch(rest, cans);
+            return;
+        }
+        if (mode.equals("--job")) {
+            runJob(rest, cans);
+            return;
+        }
+        if (mode.equals("--solve")) {
+            runSolve(rest, cans);
+            return;
+        }
+
+        new PaintTool(cans);
+    }
+
+    /**
+     * Calculates the paint for every room in a file.
+     *
+     * @param args the input file, then optionally the output file and the error file
+     * @param cans the cans to buy
+     */
+    private static void runBatch(final String[] args,
+                                 final CanMixOptimizer cans) {
+        final int[] counts = new int[cans.cans()];
+        final double[] paintableAreas = new double[BatchRunner.BLOCK_SIZE];
+        BatchRunner.run(args, "Usage: PaintTool --batch <input file> [output file] [error file]", PARTS.length * 3,
+                "line,paintable_area,cans,cost", (lines, columns, rows, out) -> {
+                    sh.kaden.ics4u.geometry.Cuboid.surfaceAreas(columns[0], columns[2], columns[1], paintableAreas,
+                            0, rows);
+                    for (int part = 1; part < PARTS.length; part++) {
+                        final double[] lengths = columns[part * 3];
+                        final double[] heights = columns[part * 3 + 1];
+                        for (int i = 0; i < rows; i++) {
+                            paintableAreas[i] -= lengths[i] * heights[i]; // only the face of an opening is unpainted
+                        }
+                    }
+
+                    for (int i = 0; i < rows; i++) {
+                        out.write(Long.toString(lines[i]));
+                        out.write(',');
+                        BatchRunner.writeNumber(out, paintableAreas[i]);
+                        writeCans(out, cans, counts, paintableAreas[i]);
+                        out.write('\n');
+                    }
+                });
+    }
+
+    /**
+     * Costs a job of many rooms from a file.
+     *
+     * @param args the input file, then optionally the output file and the error file
+     * @param cans the cans to buy
+     */
+    private static void runJob(final String[] args,
+                               final CanMixOptimizer cans) {
+        if (args.length < 1) {
+            System.out.println("Usage: PaintTool --job <input file> [output file] [error file]");
+            System.exit(1);
+        }
+
+        final PaintEstimator estimator = new PaintEstimator();
+        try (final Writer out = BatchRunner.open(args.length > 1 ? args[1] : null, System.out);
+             final Writer errorOut = BatchRunner.open(args.length > 2 ? args[2] : null, System.err)) {
+            final ErrorSink errors = new ErrorSink(errorOut);
+            BatchRunner.read(Paths.get(args[0]), JOB_COLUMNS, errors, (lines, columns, rows) -> {
+                for (int i = 0; i < rows; i++) {
+                    final double kind = columns[0][i];
+                    if (kind == JOB_ROOM) {
+                        estimator.addRoom(columns[1][i], columns[2][i], columns[3][i]);
+                    } else if (kind != JOB_OPENING) {
+                        errors.report(lines[i], "the kind must be " + JOB_ROOM + " for a room or " + JOB_OPENING
+                                + " for an opening");
+                    } else if (estimator.rooms() == 0) {
+                        errors.report(lines[i], "an opening must come after its room");
+                    } else {
+                        estimator.addOpening(estimator.rooms() - 1, columns[1][i], columns[3][i]);
+                    }
+                }
+            });
+
+            final double[] paintableAreas = new double[estimator.rooms()];
+            final double paintableArea = estimator.paintableAreas(paintableAreas);
+            out.write("room,paintable_area\n");
+            for (int i = 0; i < paintableAreas.length; i++) {
+                out.write(Integer.toString(i + 1));
+                out.write(',');
+                BatchRunner.writeNumber(out, paintableAreas[i]);
+                out.write('\n');
+            }
+            out.flush();
+            errors.flush();
+
+            System.out.println("The paintable area of these " + estimator.rooms() + " rooms is " + paintableArea
+                    + " m^2");
+            printCans(System.out, cans, paintableArea);
+            if (errors.count() > 0) {
+                System.err.println(errors.count() + " bad rows skipped.");
+            }
+        } catch (final IOException e) {
+            System.err.println("There was a problem processing the file: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Finds the room with the least paint for every target volume in a file.
+     * <p>
+     * Each block of targets is solved across the common fork-join pool. Targets that can't be reached within the
+     * bounds are written with {@code NaN} dimensions.
+     *
+     * @param args the input file, then optionally the output file and the error file, and any bounds
+     * @param cans the cans to buy
+     */
+    private static void runSolve(final String[] args,
+                                 final CanMixOptimizer cans) {
+        final List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        final CuboidSolver solver;
+        try {
+            solver = new CuboidSolver(
+                    BatchRunner.option(arguments, "--min-length", 0),
+                    BatchRunner.option(arguments, "--max-length", Double.POSITIVE_INFINITY),
+                    BatchRunner.option(arguments, "--min-width", 0),
+                    BatchRunner.option(arguments, "--max-width", Double.POSITIVE_INFINITY),
+                    BatchRunner.option(arguments, "--min-height", 0),
+                    BatchRunner.option(arguments, "--max-height", Double.POSITIVE_INFINITY));
+        } catch (final IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        final double[][] dimensions = new double[solver.dimensions()][BatchRunner.BLOCK_SIZE];
+        final double[] areas = new double[BatchRunner.BLOCK_SIZE];
+        final int[] counts = new int[cans.cans()];
+        BatchRunner.run(arguments.toArray(new String[0]), "Usage: PaintTool --solve <input file> [output file] "
+                        + "[error file] [--min-length l] [--max-length l] [--min-width w] [--max-width w] "
+                        + "[--min-height h] [--max-height h]", 1,
+                "line,volume,length,width,height,paintable_area,cans,cost", (lines, columns, rows, out) -> {
+                    final double[] volumes = columns[0];
+                    solver.solve(ForkJoinPool.commonPool(), volumes, dimensions, 0, rows);
+                    sh.kaden.ics4u.geometry.Cuboid.surfaceAreas(dimensions[0], dimensions[1], dimensions[2], areas,
+                            0, rows);
+                    for (int i = 0; i < rows; i++) {
+                        out.write(Long.toString(lines[i]));
+                        out.write(',');
+                        BatchRunner.writeNumber(out, volumes[i]);
+                        for (final double[] dimension : dimensions) {
+                            out.write(',');
+                            BatchRunner.writeNumber(out, dimension[i]);
+                        }
+                        out.write(',');
+                        BatchRunner.writeNumber(out, areas[i]);
+                        writeCans(out, cans, counts, areas[i]);
+                        out.write('\n');
+                    }
+                });
+    }
+
+    /**
+     * Writes the number of cans and their cost for an area as two more comma-separated values.
+     *
+     * @param out    the writer
+     * @param cans   the cans to buy
+     * @param counts scratch space for the count of each can
+     * @param area   the area to paint, which may be {@code NaN}
+     * @throws IOException if writing fails
+     */
+    private static void writeCans(final Writer out,
+                                  final CanMixOptimizer cans,
+                                  final int[] counts,
+                                  final double area) throws IOException {
+        double total = Double.NaN;
+        double cost = Double.NaN;
+        if (!Double.isNaN(area)) {
+            cost = cans.cheapest(area, counts) / 100.0;
+            total = 0;
+            for (final int count : counts) {
+                total += count;
+            }
+        }
+
+        out.write(',');
+        BatchRunner.writeNumber(out, total);
+        out.write(',');
+        BatchRunner.writeNumber(out, cost);
+    }
+
+    /**
+     * Prints the cheapest cans for an area, listing the mix when there is more than one size.
+     *
+     * @param out  the stream
+     * @param cans the cans to buy
+     * @param area the area to paint
+     */
+    private static void printCans(final PrintStream out,
+                                  final CanMixOptimizer cans,
+                                  final double area) {
+        final int[] counts = new int[cans.cans()];
+        final long cost = cans.cheapest(area, counts);
+        double total = 0;
+        for (final int count : counts) {
+            total += count;
+        }
+
+        out.println("That would be "+total+" cans");
+        if (counts.length > 1) {
+            for (int can = 0; can < counts.length; can++) {
+                if (counts[can] > 0) {
+                    out.println("  "+counts[can]+" x "+cans.area(can)+" m^2 at "+COST_FORMAT.format(cans.price(can)));
+                }
+            }
+        }
+        out.println("That would cost you "+COST_FORMAT.format(cost / 100.0));
     }
 
     private final Cuboid room;
@@ -26,23 +279,36 @@ public class PaintTool {
     private final Cuboid[] windows;
 
     /**
-     * Constructs {@code PaintTool}.
+     * Constructs {@code PaintTool}, buying only the standard can.
      */
     public PaintTool() {
-        this.room = this.newCuboid("room");
-        this.door = this.newCuboid("door");
+        this(new CanMixOptimizer(new double[]{PAINT_CAN_AREA}, new double[]{PAINT_CAN_COST}));
+    }
+
+    /**
+     * Constructs {@code PaintTool}.
+     *
+     * @param cans the cans to buy
+     */
+    public PaintTool(final CanMixOptimizer cans) {
+        this.room = this.newCuboid(PARTS[0]);
+        this.door = this.newOpening(PARTS[1]);
         this.windows = new Cuboid[]{
-                this.newCuboid("window A"),
-                this.newCuboid("window B")
+                this.newOpening(PARTS[2]),
+                this.newOpening(PARTS[3])
         };
 
-        final double roomArea = room.area();
-        final double paintableArea = roomArea - door.area() - windows[0].area() - windows[1].area();
-        final double cans = Math.ceil(paintableArea / PAINT_CAN_AREA);
+        final PaintEstimator estimator = new PaintEstimator();
+        final int roomIndex = estimator.addRoom(this.room.length, this.room.width, this.room.height);
+        estimator.addOpening(roomIndex, this.door.length, this.door.height);
+        for (final Cuboid window : this.windows) {
+            estimator.addOpening(roomIndex, window.length, window.height);
+        }
+
+        final double paintableArea = estimator.paintableArea();
 
         System.out.println("The paintable area of this room is "+paintableArea+" m^2");
-        System.out.println("That would be "+cans+" cans");
-        System.out.println("That would cost you "+COST_FORMAT.format(cans * PAINT_CAN_COST));
+        printCans(System.out, cans, paintableArea);
     }
 
     /**
@@ -59,6 +325,22 @@ public class PaintTool {
         return new Cuboid(name, length, width, height);
     }
 
+    /**
+     * Creates a new opening by asking questions.
+     * <p>
+     * The width of a door or window is only its depth into the wall, which doesn't change the paint, so it isn't asked
+     * and is left at zero.
+     *
+     * @param name the name
+     * @return the new opening
+     */
+    private Cuboid newOpening(final String name) {
+        final double length = this.ask("Length of " + name);
+        final double height = this.ask("Height of " + name);
+
+        return new Cuboid(name, length, 0, height);
+    }
+
     /**
      * Asks a question and reads the response from {@link System#in}.
      *
@@ -66,10 +348,9 @@ public class PaintTool {
      * @return the response
      */
     private double ask(final String question) {
-        final Scanner scanner = new Scanner(System.in);
         System.out.print(question + ": ");
         try {
-            return Double.parseDouble(scanner.nextLine());
+            return Double.parseDouble(SCANNER.nextLine());
         } catch (final Exception e) {
             System.out.println("Invalid input for question '" + question + "'.");
             System.exit(1);
@@ -81,7 +362,7 @@ public class PaintTool {
     /**
      * Stores the length, width, and height of a cuboid.
      */
-    private static class Cuboid {
+    public static class Cuboid {
 
         public final String name;
         public final double length;
@@ -112,7 +393,21 @@ public class PaintTool {
          * @return the TSA
          */
         public double area() {
-            return 2 * (length * width + width * height + length * height);
+            return area(this.length, this.width, this.height);
+        }
+
+        /**
+         * Returns the total surface area of a cuboid.
+         *
+         * @param length the length
+         * @param width  the width
+         * @param height the height
+         * @return the TSA
+         */
+        public static double area(final double length,
+                                  final double width,
+                                  final double height) {
+            return sh.kaden.ics4u.geometry.Cuboid.surfaceArea(length, width, height);
         }
 
     }
@@ -0,0 +1,508 @@
+package sh.kaden.ics4u.piglatin;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of converted words, safe to share between threads.
+ * <p>
+ * Most text repeats a few thousand words over and over, so a long-running conversion can look those up instead of
+ * converting them again. The cache is split into stripes by the word's hash, each with its own lock, so workers
+ * adding different words rarely wait on each other. Each stripe is a segmented LRU: new words go into a probation
+ * segment, and only words that are seen again are promoted to a protected segment, which can take up most of the
+ * room. A burst of words that are only seen once therefore can't push the common words out, but until the protected
+ * segment fills up, probation is free to use its room.
+ * <p>
+ * A lookup takes no lock, and a hit while writing a word allocates nothing. Words are found in an open-addressed table
+ * by a hash of their UTF-8 bytes, which is worked out and compared straight from the slice of the caller's
+ * {@code char[]} or {@code byte[]}, and a hit only marks the word as used. The segments are reordered when a new word needs room: a marked word at the end of
+ * probation is promoted instead of dropped, and a marked protected word gets a second chance before it is demoted, like
+ * a clock. A {@link String} is only made for a word that has to be converted.
+ * <p>
+ * Every converted word is kept both as chars, for {@link PigLatinStream}, and as UTF-8, for {@link PigLatinParallel},
+ * so a hit doesn't need to encode anything.
+ */
+public final class ConversionCache implements PigLatinStream.WordWriter {
+
+    private static final int STRIPES_PER_PROCESSOR = 4;
+    private static final int PROTECTED_PERCENT = 80;
+
+    private final PigLatinDialect dialect;
+    private final Segment[] stripes;
+    private final int stripeMask;
+    private final int maxEntries;
+    private final LongAdder hits;
+    private final LongAdder misses;
+
+    /**
+     * Constructs {@code ConversionCache}.
+     *
+     * @param dialect    the rules to convert words with
+     * @param maxEntries the most words to keep
+     */
+    public ConversionCache(final PigLatinDialect dialect,
+                           final int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("The cache needs room for at least one word.");
+        }
+
+        this.dialect = dialect;
+        this.maxEntries = maxEntries;
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+
+        // a power of two, so a stripe can be picked with a mask, and no more stripes than entries
+        final int wanted = Runtime.getRuntime().availableProcessors() * STRIPES_PER_PROCESSOR;
+        final int stripes = Integer.highestOneBit(Math.max(1, Math.min(wanted, maxEntries)));
+        this.stripes = new Segment[stripes];
+        this.stripeMask = stripes - 1;
+        for (int i = 0; i < stripes; i++) {
+            // the first stripes take the remainder, so the stripes hold exactly maxEntries between them
+            this.stripes[i] = new Segment(maxEntries / stripes + (i < maxEntries % stripes ? 1 : 0));
+        }
+    }
+
+    /**
+     * Removes a {@code --cache <entries>} option from {@code args} and returns a cache of that size.
+     * <p>
+     * Prints an error and exits if the size isn't a positive number.
+     *
+     * @param args    the program arguments, which are modified
+     * @param dialect the rules to convert words with
+     * @return the cache, or null if there is no option
+     */
+    static ConversionCache option(final List<String> args,
+                                  final PigLatinDialect dialect) {
+        final int index = args.indexOf("--cache");
+        if (index == -1) {
+            return null;
+        }
+        if (index + 1 >= args.size()) {
+            System.out.println("--cache needs the number of words to keep");
+            System.exit(1);
+        }
+
+        final String size = args.remove(index + 1);
+        args.remove(index);
+        try {
+            return new ConversionCache(dialect, Integer.parseInt(size));
+        } catch (final IllegalArgumentException e) {
+            System.out.println("'" + size + "' isn't a valid cache size; it must be a positive number");
+            System.exit(1);
+            return null;
+        }
+    }
+
+    /**
+     * Converts a word to pig latin, using the cached conversion if there is one.
+     *
+     * @param word the word
+     * @return the word in pig latin
+     */
+    public String convert(final String word) {
+        final char[] chars = word.toCharArray();
+        return this.lookup(chars, 0, chars.length).text;
+    }
+
+    @Override
+    public void write(final char[] chars,
+                      final int start,
+                      final int end,
+                      final Writer out) throws IOException {
+        final char[] converted = this.lookup(chars, start, end).chars;
+        out.write(converted, 0, converted.length);
+    }
+
+    /**
+     * Writes the pig latin form of the UTF-8 word in {@code bytes} from {@code start} to {@code end}.
+     * <p>
+     * Hits aren't counted here, because a shared counter costs as much as the lookup; the caller adds them up and
+     * passes the total to {@link #addHits(long)}.
+     *
+     * @param bytes the bytes
+     * @param start the index of the first letter of the word
+     * @param end   the index after the last letter of the word
+     * @param out   where to write the converted word
+     * @return true if the word was already in the cache
+     */
+    boolean write(final byte[] bytes,
+                  final int start,
+                  final int end,
+                  final PigLatinParallel.ByteSink out) {
+        final int hash = hash(bytes, start, end);
+        final Segment stripe = this.stripe(hash);
+        Converted converted = stripe.get(hash, bytes, start, end);
+        final boolean hit = converted != null;
+        if (!hit) {
+            converted = this.convert(stripe, hash, new String(bytes, start, end - start, StandardCharsets.UTF_8));
+        }
+        out.write(converted.utf8, 0, converted.utf8.length);
+        return hit;
+    }
+
+    /**
+     * Adds to the number of hits, for lookups that were counted by the caller.
+     *
+     * @param hits the number of hits
+     */
+    void addHits(final long hits) {
+        this.hits.add(hits);
+    }
+
+    /**
+     * Returns the rules words are converted with.
+     *
+     * @return the dialect
+     */
+    public PigLatinDialect dialect() {
+        return this.dialect;
+    }
+
+    /**
+     * Returns the number of lookups that found the word already converted.
+     *
+     * @return the number of hits
+     */
+    public long hits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that had to convert the word.
+     *
+     * @return the number of misses
+     */
+    public long misses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * Returns the number of words in the cache.
+     *
+     * @return the size
+     */
+    public int size() {
+        int size = 0;
+        for (final Segment stripe : this.stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    /**
+     * Prints the hit rate and size of the cache.
+     */
+    public void printStats() {
+        final long hits = this.hits();
+        final long lookups = hits + this.misses();
+        System.err.printf("Cache: %d of %d lookups hit (%.1f%%), %d of %d words kept.\n", hits, lookups,
+                lookups == 0 ? 0.0 : 100.0 * hits / lookups, this.size(), this.maxEntries);
+    }
+
+    private Converted lookup(final char[] chars,
+                             final int start,
+                             final int end) {
+        final int hash = hash(chars, start, end);
+        final Segment stripe = this.stripe(hash);
+        final Converted converted = stripe.get(hash, chars, start, end);
+        if (converted != null) {
+            this.hits.increment();
+            return converted;
+        }
+        return this.convert(stripe, hash, new String(chars, start, end - start));
+    }
+
+    private Segment stripe(final int hash) {
+        return this.stripes[(hash ^ (hash >>> 16)) & this.stripeMask];
+    }
+
+    /**
+     * Converts a word that wasn't in the cache and adds it.
+     *
+     * @param stripe the stripe the word belongs in
+     * @param hash   the hash of the word
+     * @param word   the word
+     * @return the converted word
+     */
+    private Converted convert(final Segment stripe,
+                              final int hash,
+                              final String word) {
+        // converting outside the lock means two threads can both convert a new word, which is harmless
+        this.misses.increment();
+        return stripe.put(new Converted(word.getBytes(StandardCharsets.UTF_8), hash, this.dialect.convert(word)));
+    }
+
+    private static int hash(final byte[] bytes,
+                            final int start,
+                            final int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + (bytes[i] & 0xFF);
+        }
+        return hash;
+    }
+
+    /**
+     * Hashes the UTF-8 form of a word given as chars, without encoding it, so it matches the hash of the same word given
+     * as bytes.
+     * <p>
+     * Words never hold surrogates, because only chars that are letters on their own are part of a word, so every char
+     * is one, two or three bytes.
+     */
+    private static int hash(final char[] chars,
+                            final int start,
+                            final int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            final char c = chars[i];
+            if (c < 0x80) {
+                hash = 31 * hash + c;
+            } else if (c < 0x800) {
+                hash = 31 * (31 * hash + (0xC0 | c >> 6)) + (0x80 | c & 0x3F);
+            } else {
+                hash = 31 * (31 * (31 * hash + (0xE0 | c >> 12)) + (0x80 | c >> 6 & 0x3F)) + (0x80 | c & 0x3F);
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * A converted word, in the forms each conversion path writes.
+     */
+    private static final class Converted {
+
+        private final byte[] word; // the word that was converted, as UTF-8
+        private final int hash; // the hash of the word
+        private final String text;
+        private final char[] chars;
+        private final byte[] utf8;
+        private boolean referenced; // looked up since it was added or last moved; set without the lock
+
+        private Converted(final byte[] word,
+                          final int hash,
+                          final String text) {
+            this.word = word;
+            this.hash = hash;
+            this.text = text;
+            this.chars = text.toCharArray();
+            this.utf8 = text.getBytes(StandardCharsets.UTF_8);
+        }
+
+        private boolean matches(final byte[] bytes,
+                                final int start,
+                                final int end) {
+            if (end - start != this.word.length) {
+                return false;
+            }
+            for (int i = 0; i < this.word.length; i++) {
+                if (bytes[start + i] != this.word[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Checks whether the word equals a slice of chars, encoding them as they are compared.
+         */
+        private boolean matches(final char[] chars,
+                                final int start,
+                                final int end) {
+            final byte[] word = this.word;
+            int j = 0;
+            for (int i = start; i < end; i++) {
+                final char c = chars[i];
+                if (c < 0x80) {
+                    if (j >= word.length || word[j++] != c) {
+                        return false;
+                    }
+                } else if (c < 0x800) {
+                    if (j + 2 > word.length || word[j++] != (byte) (0xC0 | c >> 6)
+                            || word[j++] != (byte) (0x80 | c & 0x3F)) {
+                        return false;
+                    }
+                } else if (j + 3 > word.length || word[j++] != (byte) (0xE0 | c >> 12)
+                        || word[j++] != (byte) (0x80 | c >> 6 & 0x3F) || word[j++] != (byte) (0x80 | c & 0x3F)) {
+                    return false;
+                }
+            }
+            return j == word.length;
+        }
+
+        private void touch() {
+            if (!this.referenced) {
+                this.referenced = true; // only written when it changes, so hits don't keep dirtying the entry
+            }
+        }
+
+    }
+
+    /**
+     * One stripe of the cache: a segmented LRU, changed under its own lock and read without one.
+     * <p>
+     * The table is open-addressed with linear probing and kept at most half full. Lookups read whatever table is
+     * current while it is being changed; at worst they miss a word that is being moved and convert it again, and
+     * {@link #put(Converted)} then hands back the word that was already there.
+     */
+    private static final class Segment {
+
+        private static final int INITIAL_TABLE_SIZE = 16;
+
+        private final ArrayDeque<Converted> probation = new ArrayDeque<>(); // seen once, oldest first
+        private final ArrayDeque<Converted> protect = new ArrayDeque<>(); // seen more than once, oldest first
+        private final int capacity; // the most words in both segments together
+        private final int protectedCapacity;
+        private volatile Converted[] table = new Converted[INITIAL_TABLE_SIZE];
+
+        private Segment(final int capacity) {
+            this.capacity = capacity;
+            this.protectedCapacity = capacity * PROTECTED_PERCENT / 100;
+        }
+
+        private Converted get(final int hash,
+                              final byte[] bytes,
+                              final int start,
+                              final int end) {
+            final Converted[] table = this.table;
+            final int mask = table.length - 1;
+            for (int i = index(hash, mask), probes = 0; probes < table.length; i = (i + 1) & mask, probes++) {
+                final Converted entry = table[i];
+                if (entry == null) {
+                    return null;
+                }
+                if (entry.hash == hash && entry.matches(bytes, start, end)) {
+                    entry.touch();
+                    return entry;
+                }
+            }
+            return null;
+        }
+
+        private Converted get(final int hash,
+                              final char[] chars,
+                              final int start,
+                              final int end) {
+            final Converted[] table = this.table;
+            final int mask = table.length - 1;
+            for (int i = index(hash, mask), probes = 0; probes < table.length; i = (i + 1) & mask, probes++) {
+                final Converted entry = table[i];
+                if (entry == null) {
+                    return null;
+                }
+                if (entry.hash == hash && entry.matches(chars, start, end)) {
+                    entry.touch();
+                    return entry;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Adds a newly converted word, unless another thread added it first.
+         *
+         * @param converted the converted word
+         * @return the word in the cache
+         */
+        private synchronized Converted put(final Converted converted) {
+            final Converted existing = this.get(converted.hash, converted.word, 0, converted.word.length);
+            if (existing != null) {
+                return existing;
+            }
+
+            if ((this.probation.size() + this.protect.size() + 1) * 2 > this.table.length) {
+                this.grow();
+            }
+            insert(this.table, converted);
+            this.probation.addLast(converted);
+
+            while (this.probation.size() + this.protect.size() > this.capacity) {
+                final Converted eldest = this.probation.removeFirst();
+                if (!eldest.referenced) {
+                    this.remove(eldest);
+                    continue;
+                }
+
+                // seen again while on probation: protect it, and demote the oldest protected words that haven't been
+                // seen since their last chance if there's no room
+                eldest.referenced = false;
+                this.protect.addLast(eldest);
+                while (this.protect.size() > this.protectedCapacity) {
+                    final Converted demoted = this.protect.removeFirst();
+                    if (demoted.referenced) {
+                        demoted.referenced = false;
+                        this.protect.addLast(demoted);
+                    } else {
+                        this.probation.addLast(demoted);
+                    }
+                }
+            }
+            return converted;
+        }
+
+        private synchronized int size() {
+            return this.probation.size() + this.protect.size();
+        }
+
+        private void grow() {
+            final Converted[] grown = new Converted[this.table.length * 2];
+            for (final Converted entry : this.probation) {
+                insert(grown, entry);
+            }
+            for (final Converted entry : this.protect) {
+                insert(grown, entry);
+            }
+            this.table = grown;
+        }
+
+        /**
+         * Removes a word from the table, moving later words in its run back so no lookup stops early at the gap.
+         *
+         * @param entry the word
+         */
+        private void remove(final Converted entry) {
+            final Converted[] table = this.table;
+            final int mask = table.length - 1;
+            int hole = index(entry.hash, mask);
+            while (table[hole] != entry) {
+                hole = (hole + 1) & mask;
+            }
+
+            for (int i = (hole + 1) & mask; table[i] != null; i = (i + 1) & mask) {
+                // a word can fill the gap if its home slot isn't between the gap and where it is now
+                final int home = index(table[i].hash, mask);
+                if (((i - home) & mask) >= ((i - hole) & mask)) {
+                    table[hole] = table[i];
+                    hole = i;
+                }
+            }
+            table[hole] = null;
+        }
+
+        private static void insert(final Converted[] table,
+                                   final Converted entry) {
+            final int mask = table.length - 1;
+            int i = index(entry.hash, mask);
+            while (table[i] != null) {
+                i = (i + 1) & mask;
+            }
+            table[i] = entry;
+        }
+
+        /**
+         * Returns the home slot of a hash.
+         * <p>
+         * Every word in a stripe has the same low bits once spread, so the table mixes the hash with a multiply first.
+         */
+        private static int index(final int hash,
+                                 final int mask) {
+            final int mixed = hash * 0x9E3779B9;
+            return (mixed ^ (mixed >>> 16)) & mask;
+        }
+
+    }
+
+}
@@ -1,5 +1,6 @@
 package sh.kaden.ics4u.piglatin;
 
+import java.util.Arrays;
 import java.util.Scanner;
 
 /**
@@ -7,7 +8,40 @@ import java.util.Scanner;
  */
 public class PigLatinConverter {
 
+    private static final Scanner SCANNER = new Scanner(System.in); // shared, so buffered input isn't lost between questions
+
+    /**
+     * The main entrypoint.
+     * <p>
+     * When files are passed as arguments, the text in them is converted non-interactively by {@link PigLatinStream}, or
+     * by {@link PigLatinParallel} when the first argument is {@code --parallel}. Either can be given
+     * {@code --dialect <name>} to use one of the {@link PigLatinDialect} rule sets.
+     * {@code --decode <word list>} converts pig latin back with {@link PigLatinDecoder}. {@code --serve [port] [threads]} starts a
+     * {@link PigLatinServer}.
+     *
+     * @param args cli args
+     */
     public static void main(final String[] args) {
+        if (args.length > 0 && args[0].equals("--parallel")) {
+            PigLatinParallel.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        if (args.length > 0 && args[0].equals("--serve")) {
+            PigLatinServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        if (args.length > 0 && args[0].equals("--decode")) {
+            PigLatinDecoder.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        if (args.length > 0) {
+            PigLatinStream.main(args);
+            return;
+        }
+
         new PigLatinConverter();
     }
 
@@ -17,8 +51,8 @@ public class PigLatinConverter {
      * @param c the character to check
      * @return true if vowel, false if not
      */
-    private static boolean isVowel(final char c) {
-        return (c == 'A' || c == 'a' || c == 'E' || c == 'e' || c == 'I' || c == 'i' || c == 'O' || c == 'o' || c == 'U' || c == 'u');
+    static boolean isVowel(final char c) {
+        return Vowels.isVowel(c);
     }
 
     /**
@@ -27,22 +61,20 @@ public class PigLatinConverter {
      * @param word the word
      * @return the word in pig latin
      */
-    private static String convert(final String word) {
-        final int length = word.length();
-        int index = -1;
-        for (int i = 0; i < length; i++) {
-            if (isVowel(word.charAt(i))) {
-                index = i;
-                break;
-            }
-        }
-
-        if (index == -1) {
-            // return original word, no vowels to piglatin with
-            return word;
-        }
+    public static String convert(final String word) {
+        return PigLatinDialect.CLASSIC.convert(word);
+    }
 
-        return word.substring(index) + word.substring(0, index) + "ay";
+    /**
+     * Converts a word to pig latin, following the rules of {@code dialect}.
+     *
+     * @param word    the word
+     * @param dialect the rules to convert with
+     * @return the word in pig latin
+     */
+    public static String convert(final String word,
+                                 final PigLatinDialect dialect) {
+        return dialect.convert(word);
     }
 
 
@@ -63,9 +95,8 @@ public class PigLatinConverter {
      * @return the response
      */
     private String ask(final String question) {
-        final Scanner scanner = new Scanner(System.in);
         System.out.print(question + ": ");
-        return scanner.nextLine();
+        return SCANNER.nextLine();
     }
 
 }
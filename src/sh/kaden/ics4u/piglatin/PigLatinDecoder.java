@@ -0,0 +1,203 @@
+package sh.kaden.ics4u.piglatin;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Converts pig latin back to the words it came from.
+ * <p>
+ * Decoding is ambiguous: "ellohay" could be "hello" with the 'h' moved, or "elloh" with nothing moved. The decoder
+ * strips the suffix, tries every way of moving letters from the end of what's left back to the front, and keeps the
+ * candidates that the dialect would convert back into the exact same word. Candidates found in the dictionary come
+ * first, most common first, followed by the rest with the fewest letters moved first.
+ * <p>
+ * Decoded words are kept in a least-recently-used cache, since the same words come up again and again in most texts.
+ * A decoder is not thread-safe.
+ */
+public class PigLatinDecoder implements PigLatinStream.WordWriter {
+
+    private static final int DEFAULT_CACHE_SIZE = 1 << 12;
+
+    /**
+     * The command-line entrypoint for {@code PigLatinDecoder}.
+     *
+     * @param args the program arguments: a word list with one word per line, most common first, then optionally the
+     *             input file and the output file, which default to stdin and stdout, and optionally
+     *             {@code --dialect <name>}
+     */
+    public static void main(final String[] args) {
+        final List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        final PigLatinDialect dialect = PigLatinDialect.option(arguments);
+        if (arguments.isEmpty()) {
+            System.out.println("Usage: PigLatinDecoder <word list> [input file] [output file] [--dialect <name>]");
+            System.exit(1);
+        }
+
+        final WordTrie dictionary;
+        try {
+            dictionary = WordTrie.load(Paths.get(arguments.get(0)));
+        } catch (final IOException e) {
+            System.err.println("There was a problem reading the word list: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        PigLatinStream.run(arguments.subList(1, arguments.size()), new PigLatinDecoder(dialect, dictionary));
+    }
+
+    private final PigLatinDialect dialect;
+    private final WordTrie dictionary;
+    private final Map<String, String> cache;
+
+    /**
+     * Constructs {@code PigLatinDecoder}.
+     *
+     * @param dialect    the rules the text was converted with
+     * @param dictionary the words to prefer when a word can be decoded more than one way
+     * @param cacheSize  the number of decoded words to remember
+     */
+    public PigLatinDecoder(final PigLatinDialect dialect,
+                           final WordTrie dictionary,
+                           final int cacheSize) {
+        this.dialect = dialect;
+        this.dictionary = dictionary;
+        this.cache = new LinkedHashMap<String, String>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, String> eldest) {
+                return this.size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Constructs {@code PigLatinDecoder} with the default cache size.
+     *
+     * @param dialect    the rules the text was converted with
+     * @param dictionary the words to prefer when a word can be decoded more than one way
+     */
+    public PigLatinDecoder(final PigLatinDialect dialect,
+                           final WordTrie dictionary) {
+        this(dialect, dictionary, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Decodes a word, picking the best candidate.
+     *
+     * @param word the word in pig latin
+     * @return the most likely original word, or {@code word} itself if it can't be decoded
+     */
+    public String decode(final String word) {
+        final String cached = this.cache.get(word);
+        if (cached != null) {
+            return cached;
+        }
+
+        final List<String> candidates = this.candidates(word);
+        final String decoded = candidates.isEmpty() ? word : candidates.get(0);
+        this.cache.put(word, decoded);
+        return decoded;
+    }
+
+    /**
+     * Returns every word that the dialect converts into {@code word}, best first.
+     *
+     * @param word the word in pig latin
+     * @return the candidates, which may be empty
+     */
+    public List<String> candidates(final String word) {
+        final List<String> candidates = new ArrayList<>();
+        this.addCandidates(word, this.dialect.vowelSuffix(), candidates);
+        if (!this.dialect.consonantSuffix().equals(this.dialect.vowelSuffix())) {
+            this.addCandidates(word, this.dialect.consonantSuffix(), candidates);
+        }
+        if (this.dialect.convert(word).equals(word)) {
+            candidates.add(word); // words without vowels are left unchanged
+        }
+
+        // stable, so candidates outside the dictionary stay in the order they were found
+        final int[] ranks = new int[candidates.size()];
+        final Integer[] order = new Integer[candidates.size()];
+        for (int i = 0; i < order.length; i++) {
+            final int rank = this.dictionary.rank(candidates.get(i));
+            ranks[i] = rank == -1 ? Integer.MAX_VALUE : rank;
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(ranks[a], ranks[b]));
+
+        final List<String> sorted = new ArrayList<>(order.length);
+        for (final int i : order) {
+            sorted.add(candidates.get(i));
+        }
+        return sorted;
+    }
+
+    @Override
+    public void write(final char[] chars,
+                      final int start,
+                      final int end,
+                      final Writer out) throws IOException {
+        out.write(this.decode(new String(chars, start, end - start)));
+    }
+
+    /**
+     * Adds the candidates for {@code word} that end in {@code suffix}.
+     *
+     * @param word       the word in pig latin
+     * @param suffix     the suffix the dialect might have added
+     * @param candidates the list to add to
+     */
+    private void addCandidates(final String word,
+                               final String suffix,
+                               final List<String> candidates) {
+        final int length = word.length() - suffix.length();
+        if (length <= 0 || !word.regionMatches(true, length, suffix, 0, suffix.length())) {
+            return;
+        }
+
+        // the dialect may have changed the case of moved letters, so rotate in lower case and restore the case after
+        final boolean preserveCase = this.dialect.preservesCase();
+        final String body = preserveCase ? word.substring(0, length).toLowerCase(Locale.ROOT) : word.substring(0, length);
+        for (int moved = 0; moved < length; moved++) {
+            final int split = length - moved;
+            if (moved > 0 && isVowelOtherThanU(body.charAt(split))) {
+                break; // only consonants are ever moved, apart from the 'u' in "qu"
+            }
+
+            final String rotated = body.substring(split) + body.substring(0, split);
+            final String candidate = preserveCase ? restoreCase(rotated, word) : rotated;
+            if (this.dialect.convert(candidate).equals(word) && !candidates.contains(candidate)) {
+                candidates.add(candidate);
+            }
+        }
+    }
+
+    private static boolean isVowelOtherThanU(final char c) {
+        return Vowels.isVowel(c) && c != 'u' && c != 'U';
+    }
+
+    /**
+     * Capitalizes {@code candidate} the way {@code word} is capitalized.
+     *
+     * @param candidate the candidate, in lower case
+     * @param word      the word in pig latin
+     * @return the candidate in the same case as the word
+     */
+    private static String restoreCase(final String candidate,
+                                      final String word) {
+        if (!Character.isUpperCase(word.charAt(0))) {
+            return candidate;
+        }
+        if (word.length() > 1 && word.equals(word.toUpperCase(Locale.ROOT))) {
+            return candidate.toUpperCase(Locale.ROOT);
+        }
+        return Character.toUpperCase(candidate.charAt(0)) + candidate.substring(1);
+    }
+
+}
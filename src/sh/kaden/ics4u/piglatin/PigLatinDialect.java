@@ -0,0 +1,464 @@
+package sh.kaden.ics4u.piglatin;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A set of pig latin rules, compiled into a small state machine.
+ * <p>
+ * Every dialect moves the consonants before a word's first vowel to its end and adds a suffix, and leaves words with
+ * no vowels unchanged. A dialect can also:
+ * <ul>
+ *     <li>add a different suffix to words that start with a vowel, such as "way" or "yay";</li>
+ *     <li>treat 'y' as a vowel when it isn't the first letter, so "rhythm" becomes "ythmrhay";</li>
+ *     <li>keep "qu" together, so "queen" becomes "eenquay" rather than "ueenqay";</li>
+ *     <li>preserve capitalization, so "Hello" becomes "Ellohay" and "HELLO" becomes "ELLOHAY".</li>
+ * </ul>
+ * The rules are compiled when the dialect is constructed: each ASCII character is mapped to a character class, and the
+ * rules become a transition table over those classes, so finding where a word splits is one table lookup per letter
+ * no matter how many rules are on. A dialect without the 'y' and "qu" rules skips the table and uses
+ * {@link Vowels#indexOfVowel} directly.
+ */
+public final class PigLatinDialect implements PigLatinStream.WordWriter {
+
+    /**
+     * The original rules: "ay" after every word with a vowel, and no special cases.
+     */
+    public static final PigLatinDialect CLASSIC = new PigLatinDialect("ay", "ay", false, false, false);
+
+    /**
+     * Adds "way" to words that start with a vowel, and uses every other rule.
+     */
+    public static final PigLatinDialect WAY = new PigLatinDialect("ay", "way", true, true, true);
+
+    /**
+     * Adds "yay" to words that start with a vowel, and uses every other rule.
+     */
+    public static final PigLatinDialect YAY = new PigLatinDialect("ay", "yay", true, true, true);
+
+    // character classes
+    private static final byte CONSONANT = 0;
+    private static final byte VOWEL = 1;
+    private static final byte Y = 2;
+    private static final byte Q = 3;
+    private static final byte U = 4;
+    private static final int CLASSES = 5;
+
+    // states; the last two are final, and say where the word splits
+    private static final byte START = 0; // nothing read yet
+    private static final byte ONSET = 1; // reading the consonants before the first vowel
+    private static final byte AFTER_Q = 2; // the last consonant read was a 'q'
+    private static final byte VOWEL_FIRST = 3; // the word starts with a vowel
+    private static final byte SPLIT = 4; // the letter just read is the first vowel
+    private static final int STATES = 3; // the number of non-final states
+
+    // how a word is capitalized
+    private static final int AS_IS = 0;
+    private static final int TITLE_CASE = 1;
+    private static final int UPPER_CASE = 2;
+
+    private final String consonantSuffixText;
+    private final String vowelSuffixText;
+    private final char[] consonantSuffix;
+    private final char[] vowelSuffix;
+    private final byte[] consonantSuffixBytes;
+    private final byte[] vowelSuffixBytes;
+    private final boolean preserveCase;
+    private final boolean plain; // true if the first vowel is always the split, so the table isn't needed
+    private final byte[] classes; // the class of each ASCII character
+    private final byte[] transitions; // the next state, indexed by state * CLASSES + class
+
+    /**
+     * Constructs {@code PigLatinDialect}.
+     *
+     * @param consonantSuffix the suffix for words that start with consonants
+     * @param vowelSuffix     the suffix for words that start with a vowel
+     * @param yIsVowel        true to treat 'y' as a vowel when it isn't the first letter of a word
+     * @param quCluster       true to keep a 'u' after a 'q' with the consonants
+     * @param preserveCase    true to keep capitalized words capitalized and upper case words upper case
+     */
+    public PigLatinDialect(final String consonantSuffix,
+                           final String vowelSuffix,
+                           final boolean yIsVowel,
+                           final boolean quCluster,
+                           final boolean preserveCase) {
+        this.consonantSuffixText = consonantSuffix;
+        this.vowelSuffixText = vowelSuffix;
+        this.consonantSuffix = consonantSuffix.toCharArray();
+        this.vowelSuffix = vowelSuffix.toCharArray();
+        this.consonantSuffixBytes = asciiBytes(consonantSuffix);
+        this.vowelSuffixBytes = asciiBytes(vowelSuffix);
+        this.preserveCase = preserveCase;
+        this.plain = !yIsVowel && !quCluster;
+
+        this.classes = new byte[128];
+        for (char c = 0; c < this.classes.length; c++) {
+            this.classes[c] = Vowels.isVowel(c) ? VOWEL : CONSONANT;
+        }
+        if (yIsVowel) {
+            this.classes['y'] = this.classes['Y'] = Y;
+        }
+        if (quCluster) {
+            this.classes['q'] = this.classes['Q'] = Q;
+            this.classes['u'] = this.classes['U'] = U;
+        }
+
+        this.transitions = new byte[STATES * CLASSES];
+        for (int state = 0; state < STATES; state++) {
+            final boolean first = state == START;
+            this.transitions[state * CLASSES + CONSONANT] = ONSET;
+            this.transitions[state * CLASSES + VOWEL] = first ? VOWEL_FIRST : SPLIT;
+            this.transitions[state * CLASSES + Y] = first ? ONSET : SPLIT; // a leading 'y' is a consonant
+            this.transitions[state * CLASSES + Q] = AFTER_Q;
+            this.transitions[state * CLASSES + U] = state == AFTER_Q ? ONSET : first ? VOWEL_FIRST : SPLIT;
+        }
+    }
+
+    /**
+     * Returns the dialect called {@code name}.
+     *
+     * @param name the name of the dialect, ignoring case
+     * @return the dialect, or null if there isn't one with that name
+     */
+    public static PigLatinDialect forName(final String name) {
+        switch (name.toLowerCase(Locale.ROOT)) {
+            case "classic":
+                return CLASSIC;
+            case "way":
+                return WAY;
+            case "yay":
+                return YAY;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Removes a {@code --dialect <name>} option from {@code args} and returns the dialect it names.
+     * <p>
+     * Prints an error and exits if the name isn't a known dialect.
+     *
+     * @param args the program arguments, which are modified
+     * @return the dialect, or {@link #CLASSIC} if there is no option
+     */
+    static PigLatinDialect option(final List<String> args) {
+        final int index = args.indexOf("--dialect");
+        if (index == -1) {
+            return CLASSIC;
+        }
+        if (index + 1 >= args.size()) {
+            System.out.println("--dialect needs a name: classic, way or yay");
+            System.exit(1);
+        }
+
+        final String name = args.remove(index + 1);
+        args.remove(index);
+        final PigLatinDialect dialect = forName(name);
+        if (dialect == null) {
+            System.out.println("Unknown dialect '" + name + "'; try classic, way or yay");
+            System.exit(1);
+        }
+        return dialect;
+    }
+
+    /**
+     * Converts a word to pig latin.
+     *
+     * @param word the word, which should only contain letters
+     * @return the word in pig latin
+     */
+    public String convert(final String word) {
+        final char[] chars = word.toCharArray();
+        final int split = this.split(chars, 0, chars.length);
+        if (split == -1) {
+            // return original word, no vowels to piglatin with
+            return word;
+        }
+
+        final StringBuilder builder = new StringBuilder(chars.length + this.vowelSuffix.length);
+        final int caseMode = this.caseOf(chars, 0, chars.length);
+        if (split == 0) {
+            builder.append(chars);
+            appendSuffix(builder, this.vowelSuffix, caseMode);
+            return builder.toString();
+        }
+
+        if (caseMode == TITLE_CASE) {
+            builder.append(Character.toUpperCase(chars[split]))
+                    .append(chars, split + 1, chars.length - split - 1)
+                    .append(Character.toLowerCase(chars[0]))
+                    .append(chars, 1, split - 1);
+        } else {
+            builder.append(chars, split, chars.length - split).append(chars, 0, split);
+        }
+        appendSuffix(builder, this.consonantSuffix, caseMode);
+        return builder.toString();
+    }
+
+    /**
+     * Writes the pig latin form of the word in {@code chars} from {@code start} to {@code end}.
+     *
+     * @param chars the characters
+     * @param start the index of the first letter of the word
+     * @param end   the index after the last letter of the word
+     * @param out   the writer
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void write(final char[] chars,
+                      final int start,
+                      final int end,
+                      final Writer out) throws IOException {
+        final int split = this.split(chars, start, end);
+        if (split == -1) {
+            // write original word, no vowels to piglatin with
+            out.write(chars, start, end - start);
+            return;
+        }
+
+        final int caseMode = this.caseOf(chars, start, end);
+        if (split == start) {
+            out.write(chars, start, end - start);
+            writeSuffix(out, this.vowelSuffix, caseMode);
+            return;
+        }
+
+        if (caseMode == TITLE_CASE) {
+            out.write(Character.toUpperCase(chars[split]));
+            out.write(chars, split + 1, end - split - 1);
+            out.write(Character.toLowerCase(chars[start]));
+            out.write(chars, start + 1, split - start - 1);
+        } else {
+            out.write(chars, split, end - split);
+            out.write(chars, start, split - start);
+        }
+        writeSuffix(out, this.consonantSuffix, caseMode);
+    }
+
+    /**
+     * Writes the pig latin form of the ASCII word in {@code bytes} from {@code start} to {@code end}.
+     *
+     * @param bytes the bytes, which must all be ASCII letters
+     * @param start the index of the first letter of the word
+     * @param end   the index after the last letter of the word
+     * @param out   where to write the converted word
+     */
+    void write(final byte[] bytes,
+               final int start,
+               final int end,
+               final PigLatinParallel.ByteSink out) {
+        this.write(bytes, start, end, this.split(bytes, start, end), out);
+    }
+
+    /**
+     * Writes the pig latin form of the word in {@code bytes} from {@code start} to {@code end}, split at {@code split}.
+     * <p>
+     * The word must be ASCII unless the dialect {@link #isPlain() is plain}.
+     *
+     * @param bytes the bytes
+     * @param start the index of the first letter of the word
+     * @param end   the index after the last letter of the word
+     * @param split the index of the split, or -1 if the word has no vowels
+     * @param out   where to write the converted word
+     */
+    void write(final byte[] bytes,
+               final int start,
+               final int end,
+               final int split,
+               final PigLatinParallel.ByteSink out) {
+        if (split == -1) {
+            // write original word, no vowels to piglatin with
+            out.write(bytes, start, end - start);
+            return;
+        }
+
+        final int caseMode = this.caseOf(bytes, start, end);
+        if (split == start) {
+            out.write(bytes, start, end - start);
+            writeSuffix(out, this.vowelSuffixBytes, caseMode);
+            return;
+        }
+
+        if (caseMode == TITLE_CASE) {
+            out.write((byte) (bytes[split] & ~0x20)); // clearing 0x20 upper cases an ASCII letter
+            out.write(bytes, split + 1, end - split - 1);
+            out.write((byte) (bytes[start] | 0x20));
+            out.write(bytes, start + 1, split - start - 1);
+        } else {
+            out.write(bytes, split, end - split);
+            out.write(bytes, start, split - start);
+        }
+        writeSuffix(out, this.consonantSuffixBytes, caseMode);
+    }
+
+    /**
+     * Returns the index that the word in {@code chars} from {@code start} to {@code end} is split at: the letters
+     * before it are moved to the end.
+     *
+     * @param chars the characters
+     * @param start the index of the first letter of the word
+     * @param end   the index after the last letter of the word
+     * @return the index of the split, or -1 if the word has no vowels
+     */
+    int split(final char[] chars,
+              final int start,
+              final int end) {
+        if (this.plain) {
+            return Vowels.indexOfVowel(chars, start, end);
+        }
+
+        int state = START;
+        for (int i = start; i < end; i++) {
+            final char c = chars[i];
+            final int type = c < this.classes.length ? this.classes[c] : Vowels.isVowel(c) ? VOWEL : CONSONANT;
+            state = this.transitions[state * CLASSES + type];
+            if (state >= STATES) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index that the ASCII word in {@code bytes} from {@code start} to {@code end} is split at.
+     *
+     * @param bytes the bytes, which must all be ASCII letters
+     * @param start the index of the first letter of the word
+     * @param end   the index after the last letter of the word
+     * @return the index of the split, or -1 if the word has no vowels
+     */
+    int split(final byte[] bytes,
+              final int start,
+              final int end) {
+        if (this.plain) {
+            return Vowels.indexOfAsciiVowel(bytes, start, end);
+        }
+
+        int state = START;
+        for (int i = start; i < end; i++) {
+            state = this.transitions[state * CLASSES + this.classes[bytes[i]]];
+            if (state >= STATES) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the suffix added to words that start with consonants.
+     *
+     * @return the suffix
+     */
+    String consonantSuffix() {
+        return this.consonantSuffixText;
+    }
+
+    /**
+     * Returns the suffix added to words that start with a vowel.
+     *
+     * @return the suffix
+     */
+    String vowelSuffix() {
+        return this.vowelSuffixText;
+    }
+
+    /**
+     * Returns true if this dialect keeps capitalized and upper case words that way.
+     *
+     * @return true if capitalization is preserved
+     */
+    boolean preservesCase() {
+        return this.preserveCase;
+    }
+
+    /**
+     * Returns true if words are always split at their first vowel and no letter changes case, so any UTF-8 word can be
+     * written by {@link #write(byte[], int, int, int, PigLatinParallel.ByteSink)} once its first vowel is known.
+     *
+     * @return true if the dialect only moves letters and adds suffixes
+     */
+    boolean isPlain() {
+        return this.plain && !this.preserveCase;
+    }
+
+    private int caseOf(final char[] chars,
+                       final int start,
+                       final int end) {
+        if (!this.preserveCase || !Character.isUpperCase(chars[start])) {
+            return AS_IS;
+        }
+        if (end - start == 1) {
+            return TITLE_CASE;
+        }
+        for (int i = start + 1; i < end; i++) {
+            if (!Character.isUpperCase(chars[i])) {
+                return TITLE_CASE;
+            }
+        }
+        return UPPER_CASE;
+    }
+
+    private int caseOf(final byte[] bytes,
+                       final int start,
+                       final int end) {
+        if (!this.preserveCase || (bytes[start] & 0x20) != 0) {
+            return AS_IS;
+        }
+        if (end - start == 1) {
+            return TITLE_CASE;
+        }
+        for (int i = start + 1; i < end; i++) {
+            if ((bytes[i] & 0x20) != 0) {
+                return TITLE_CASE;
+            }
+        }
+        return UPPER_CASE;
+    }
+
+    private static void appendSuffix(final StringBuilder builder,
+                                     final char[] suffix,
+                                     final int caseMode) {
+        for (final char c : suffix) {
+            builder.append(caseMode == UPPER_CASE ? Character.toUpperCase(c) : c);
+        }
+    }
+
+    private static void writeSuffix(final Writer out,
+                                    final char[] suffix,
+                                    final int caseMode) throws IOException {
+        if (caseMode != UPPER_CASE) {
+            out.write(suffix, 0, suffix.length);
+            return;
+        }
+        for (final char c : suffix) {
+            out.write(Character.toUpperCase(c));
+        }
+    }
+
+    private static void writeSuffix(final PigLatinParallel.ByteSink out,
+                                    final byte[] suffix,
+                                    final int caseMode) {
+        if (caseMode != UPPER_CASE) {
+            out.write(suffix, 0, suffix.length);
+            return;
+        }
+        for (final byte b : suffix) {
+            out.write((byte) Character.toUpperCase(b));
+        }
+    }
+
+    private static byte[] asciiBytes(final String suffix) {
+        final byte[] bytes = new byte[suffix.length()];
+        for (int i = 0; i < bytes.length; i++) {
+            final char c = suffix.charAt(i);
+            if (c >= 128) {
+                throw new IllegalArgumentException("Suffixes must be ASCII: " + suffix);
+            }
+            bytes[i] = (byte) c;
+        }
+        return bytes;
+    }
+
+}
@@ -0,0 +1,445 @@
+package sh.kaden.ics4u.piglatin;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Converts large UTF-8 text files to pig latin on several cores.
+ * <p>
+ * The input file is memory-mapped and cut into chunks of roughly {@link #DEFAULT_CHUNK_SIZE} bytes, with every cut
+ * moved forward to the next ASCII byte that isn't a letter, so no word or multi-byte character is ever split between
+ * chunks. Chunks are converted on a {@link ForkJoinPool}, each into its own buffer, and the buffers are written out in
+ * chunk order. Only a few chunks beyond the one being written are in flight at once, so memory stays bounded for
+ * inputs far larger than the heap.
+ */
+public class PigLatinParallel {
+
+    /**
+     * The size chunks are cut at, before being moved to a word boundary.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 8 << 20;
+
+    private static final int BOUNDARY_SCAN_SIZE = 1 << 12;
+
+    /**
+     * The command-line entrypoint for {@code PigLatinParallel}.
+     *
+     * @param args the program arguments: the input file, the output file, optionally the number of threads, optionally
+     *             {@code --dialect <name>}, and optionally {@code --cache <entries>} to remember that many converted
+     *             words
+     */
+    public static void main(final String[] args) {
+        final List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        final PigLatinDialect dialect = PigLatinDialect.option(arguments);
+        final ConversionCache cache = ConversionCache.option(arguments, dialect);
+        if (arguments.size() < 2) {
+            System.out.println("Usage: PigLatinParallel <input file> <output file> [threads] [--dialect <name>] [--cache <entries>]");
+            System.exit(1);
+        }
+
+        final int threads = arguments.size() > 2
+                ? parseThreads(arguments.get(2))
+                : Runtime.getRuntime().availableProcessors();
+        final ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            final long start = System.nanoTime();
+            final long bytes = new PigLatinParallel(pool, DEFAULT_CHUNK_SIZE, dialect, cache)
+                    .convert(Paths.get(arguments.get(0)), Paths.get(arguments.get(1)));
+            final double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("Converted %d bytes in %.3f seconds (%.1f MB/s).\n", bytes, seconds, bytes / seconds / 1e6);
+            if (cache != null) {
+                cache.printStats();
+            }
+        } catch (final IOException e) {
+            System.out.println("There was a problem converting the file: " + e.getMessage());
+            System.exit(1);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Parses the thread count argument, exiting if it isn't a positive number.
+     *
+     * @param value the argument
+     * @return the number of threads
+     */
+    private static int parseThreads(final String value) {
+        try {
+            final int threads = Integer.parseInt(value);
+            if (threads >= 1) {
+                return Math.min(threads, Short.MAX_VALUE); // the most a ForkJoinPool can run
+            }
+        } catch (final NumberFormatException e) {
+            // reported below, the same as a number that is too small
+        }
+        System.out.println("'" + value + "' isn't a valid thread count; it must be a positive number");
+        System.exit(1);
+        return 0;
+    }
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private final PigLatinDialect dialect;
+    private final ConversionCache cache; // shared by every chunk, or null
+
+    /**
+     * Constructs {@code PigLatinParallel}.
+     *
+     * @param pool      the pool to convert chunks on
+     * @param chunkSize the size chunks are cut at, before being moved to a word boundary
+     * @param dialect   the rules to convert words with
+     * @param cache     a cache of converted words using the same dialect, or null to convert every word
+     */
+    public PigLatinParallel(final ForkJoinPool pool,
+                            final int chunkSize,
+                            final PigLatinDialect dialect,
+                            final ConversionCache cache) {
+        if (cache != null && cache.dialect() != dialect) {
+            throw new IllegalArgumentException("The cache converts with a different dialect.");
+        }
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+        this.dialect = dialect;
+        this.cache = cache;
+    }
+
+    /**
+     * Constructs {@code PigLatinParallel} without a cache.
+     *
+     * @param pool      the pool to convert chunks on
+     * @param chunkSize the size chunks are cut at, before being moved to a word boundary
+     * @param dialect   the rules to convert words with
+     */
+    public PigLatinParallel(final ForkJoinPool pool,
+                            final int chunkSize,
+                            final PigLatinDialect dialect) {
+        this(pool, chunkSize, dialect, null);
+    }
+
+    /**
+     * Constructs {@code PigLatinParallel} with the {@link PigLatinDialect#CLASSIC classic} rules.
+     *
+     * @param pool      the pool to convert chunks on
+     * @param chunkSize the size chunks are cut at, before being moved to a word boundary
+     */
+    public PigLatinParallel(final ForkJoinPool pool,
+                            final int chunkSize) {
+        this(pool, chunkSize, PigLatinDialect.CLASSIC);
+    }
+
+    /**
+     * Converts the file at {@code input} and writes the result to {@code output}.
+     *
+     * @param input  the input file
+     * @param output the output file, which is replaced if it exists
+     * @return the number of bytes read
+     * @throws IOException if reading or writing fails
+     */
+    public long convert(final Path input,
+                        final Path output) throws IOException {
+        try (final FileChannel channel = FileChannel.open(input, StandardOpenOption.READ);
+             final OutputStream out = Files.newOutputStream(output)) {
+            this.convert(channel, out);
+            return channel.size();
+        }
+    }
+
+    /**
+     * Converts everything in {@code channel} and writes the result to {@code out}, in order.
+     *
+     * @param channel the input channel
+     * @param out     the output stream, which is not closed
+     * @throws IOException if reading or writing fails
+     */
+    public void convert(final FileChannel channel,
+                        final OutputStream out) throws IOException {
+        final long size = channel.size();
+        final int maxInFlight = this.pool.getParallelism() * 2;
+        final Deque<ForkJoinTask<byte[]>> inFlight = new ArrayDeque<>();
+
+        long position = 0;
+        while (position < size || !inFlight.isEmpty()) {
+            // keep a bounded number of chunks converting ahead of the one being written
+            while (position < size && inFlight.size() < maxInFlight) {
+                final long end = this.boundaryAfter(channel, Math.min(size, position + this.chunkSize), size);
+                final MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, position, end - position);
+                inFlight.addLast(this.pool.submit(new ChunkTask(chunk, this.dialect, this.cache)));
+                position = end;
+            }
+
+            final byte[] converted = inFlight.removeFirst().join();
+            out.write(converted);
+        }
+        out.flush();
+    }
+
+    /**
+     * Returns the first position at or after {@code target} that is not inside a word or character.
+     *
+     * @param channel the channel
+     * @param target  the position to start looking from
+     * @param size    the size of the channel
+     * @return the boundary
+     * @throws IOException if reading fails
+     */
+    private long boundaryAfter(final FileChannel channel,
+                               final long target,
+                               final long size) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(BOUNDARY_SCAN_SIZE);
+        long position = target;
+        while (position < size) {
+            buffer.clear();
+            final int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+
+            for (int i = 0; i < read; i++) {
+                final byte b = buffer.get(i);
+                if (b >= 0 && !isAsciiLetter(b)) {
+                    return position + i;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    /**
+     * Converts one chunk into its own buffer.
+     */
+    private static final class ChunkTask extends RecursiveTask<byte[]> {
+
+        private final ByteBuffer in;
+        private final PigLatinDialect dialect;
+        private final ConversionCache cache;
+
+        private ChunkTask(final ByteBuffer in,
+                          final PigLatinDialect dialect,
+                          final ConversionCache cache) {
+            this.in = in;
+            this.dialect = dialect;
+            this.cache = cache;
+        }
+
+        @Override
+        protected byte[] compute() {
+            // one bulk copy out of the mapping lets the scans below work on a plain array
+            final byte[] bytes = new byte[this.in.remaining()];
+            this.in.get(bytes);
+
+            // pig latin adds two bytes per word, so a little headroom usually avoids growing the buffer
+            final ByteSink out = new ByteSink(bytes.length + (bytes.length >> 2) + 16);
+            convert(bytes, 0, bytes.length, this.dialect, this.cache, out);
+            return out.toByteArray();
+        }
+
+    }
+
+    /**
+     * Converts the UTF-8 text in {@code in} from {@code from} to {@code to}.
+     * <p>
+     * Words that are entirely ASCII, which is nearly all of them in most texts, are converted straight from the bytes;
+     * only words with multi-byte letters are decoded.
+     *
+     * @param in      the text
+     * @param from    the index of the first byte
+     * @param to      the index after the last byte
+     * @param dialect the rules to convert words with
+     * @param cache   a cache of converted words, or null
+     * @param out     where to write the converted text
+     */
+    static void convert(final byte[] in,
+                        final int from,
+                        final int to,
+                        final PigLatinDialect dialect,
+                        final ConversionCache cache,
+                        final ByteSink out) {
+        long hits = 0; // counted here and added to the cache once, since a shared counter per word is slow
+        int position = from;
+        while (position < to) {
+            final int start = position;
+            if (!isLetterAt(in, position, to)) {
+                while (position < to && !isLetterAt(in, position, to)) {
+                    position += sequenceLength(in[position]);
+                }
+                out.write(in, start, Math.min(position, to) - start);
+                continue;
+            }
+
+            boolean ascii = true;
+            while (position < to && isLetterAt(in, position, to)) {
+                ascii &= in[position] >= 0;
+                position += sequenceLength(in[position]);
+            }
+            position = Math.min(position, to);
+
+            if (cache != null) {
+                if (cache.write(in, start, position, out)) {
+                    hits++;
+                }
+            } else if (ascii) {
+                dialect.write(in, start, position, out);
+            } else if (dialect.isPlain()) {
+                dialect.write(in, start, position, firstVowel(in, start, position), out);
+            } else {
+                // changing the case of non-ASCII letters can change their length, so let the char rules handle them
+                final String word = new String(in, start, position - start, StandardCharsets.UTF_8);
+                final byte[] converted = dialect.convert(word).getBytes(StandardCharsets.UTF_8);
+                out.write(converted, 0, converted.length);
+            }
+        }
+
+        if (hits != 0) {
+            cache.addHits(hits);
+        }
+    }
+
+    /**
+     * Returns the position of the first vowel letter in the UTF-8 word from {@code from} to {@code to}.
+     *
+     * @param in   the text
+     * @param from the position of the first letter
+     * @param to   the position after the last letter
+     * @return the position of the first vowel, or -1 if there is none
+     */
+    private static int firstVowel(final byte[] in,
+                                  final int from,
+                                  final int to) {
+        for (int position = from; position < to; position += sequenceLength(in[position])) {
+            if (isVowelAt(in, position, to)) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isAsciiLetter(final byte b) {
+        return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z');
+    }
+
+    private static boolean isLetterAt(final byte[] in,
+                                      final int position,
+                                      final int to) {
+        final byte b = in[position];
+        if (b >= 0) {
+            return isAsciiLetter(b);
+        }
+        // the same letters as PigLatinStream, which checks one UTF-16 char at a time, so a letter outside the BMP is
+        // two surrogates that aren't letters and is copied through like punctuation
+        final int codePoint = decode(in, position, to);
+        return codePoint >= 0 && codePoint <= Character.MAX_VALUE && Character.isLetter((char) codePoint);
+    }
+
+    private static boolean isVowelAt(final byte[] in,
+                                     final int position,
+                                     final int to) {
+        final byte b = in[position];
+        if (b >= 0) {
+            return Vowels.isVowel((char) b);
+        }
+        final int codePoint = decode(in, position, to);
+        return codePoint >= 0 && codePoint <= Character.MAX_VALUE && Vowels.isVowel((char) codePoint);
+    }
+
+    /**
+     * Returns the number of bytes in the UTF-8 sequence that starts with {@code lead}.
+     *
+     * @param lead the first byte of the sequence
+     * @return the sequence length, or 1 for a byte that can't start a sequence
+     */
+    private static int sequenceLength(final byte lead) {
+        if (lead >= 0) {
+            return 1;
+        } else if ((lead & 0xE0) == 0xC0) {
+            return 2;
+        } else if ((lead & 0xF0) == 0xE0) {
+            return 3;
+        } else if ((lead & 0xF8) == 0xF0) {
+            return 4;
+        }
+        return 1;
+    }
+
+    /**
+     * Decodes the multi-byte UTF-8 sequence at {@code position}.
+     *
+     * @param in       the bytes
+     * @param position the position of the lead byte
+     * @param to       the end of the readable bytes
+     * @return the code point, or -1 if the sequence is malformed or cut off
+     */
+    private static int decode(final byte[] in,
+                              final int position,
+                              final int to) {
+        final int length = sequenceLength(in[position]);
+        if (length == 1 || position + length > to) {
+            return -1;
+        }
+
+        int codePoint = in[position] & (0x7F >> length);
+        for (int i = 1; i < length; i++) {
+            final byte b = in[position + i];
+            if ((b & 0xC0) != 0x80) {
+                return -1;
+            }
+            codePoint = (codePoint << 6) | (b & 0x3F);
+        }
+        return codePoint;
+    }
+
+    /**
+     * A growable byte buffer that chunk output is written to.
+     */
+    static final class ByteSink {
+
+        private byte[] bytes;
+        private int size;
+
+        ByteSink(final int capacity) {
+            this.bytes = new byte[Math.max(capacity, 16)];
+        }
+
+        void write(final byte b) {
+            this.ensureCapacity(1);
+            this.bytes[this.size++] = b;
+        }
+
+        void write(final byte[] src,
+                   final int offset,
+                   final int length) {
+            this.ensureCapacity(length);
+            System.arraycopy(src, offset, this.bytes, this.size, length);
+            this.size += length;
+        }
+
+        byte[] toByteArray() {
+            return this.size == this.bytes.length ? this.bytes : Arrays.copyOf(this.bytes, this.size);
+        }
+
+        private void ensureCapacity(final int extra) {
+            if (this.size + extra > this.bytes.length) {
+                this.bytes = Arrays.copyOf(this.bytes, Math.max(this.bytes.length * 2, this.size + extra));
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,137 @@
+package sh.kaden.ics4u.piglatin;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Checks that {@link PigLatinParallel} writes exactly the same text as {@link PigLatinStream}.
+ * <p>
+ * A few fixed texts, and many random ones drawn from ASCII, accented Latin letters, letters outside the Basic
+ * Multilingual Plane and punctuation, are converted both ways with every dialect, with and without a
+ * {@link ConversionCache}. The parallel path is run on a file with tiny chunks, so words next to every kind of
+ * character end up at chunk cuts. The program exits with status 1 if any output differs.
+ */
+public class PigLatinParallelCheck {
+
+    private static final int DEFAULT_TEXTS = 2_000;
+    private static final int MAX_TEXT_LENGTH = 200;
+    private static final int CHUNK_SIZE = 7; // small enough that most texts are cut several times
+
+    private static final String[] FIXED_TEXTS = {
+            "Hello, world! The quick brown fox.",
+            "\uD835\uDC00pple and \uD835\uDC00\uD835\uDC01c", // mathematical bold capital A and B
+            "caf\u00E9 \u00C9cole na\u00EFve \u00DCber",
+            "\uD801\uDC00\uD801\uDC28 Deseret, \uD840\uDC00 han", // letters from Deseret and CJK Extension B
+            "rhythm \uD83D\uDE00 smile\uD83D\uDE00face",
+            ""
+    };
+
+    private static final String[] PIECES = {
+            "a", "e", "b", "st", "Th", "QU", "y", "\u00E9", "\u00C9", "\u00F1", "\u0101",
+            "\uD835\uDC00", "\uD801\uDC28", "\uD840\uDC00", "\uD83D\uDE00",
+            " ", "  ", ",", ".", "\n", "-", "'", "1"
+    };
+
+    /**
+     * The command-line entrypoint for {@code PigLatinParallelCheck}.
+     *
+     * @param args the program arguments, optionally the number of random texts and the seed
+     */
+    public static void main(final String[] args) {
+        final int texts = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_TEXTS;
+        final long seed = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
+        final PigLatinDialect[] dialects = {PigLatinDialect.CLASSIC, PigLatinDialect.WAY, PigLatinDialect.YAY};
+        final SplittableRandom random = new SplittableRandom(seed);
+        final ForkJoinPool pool = new ForkJoinPool(2);
+
+        int failures = 0;
+        try {
+            final Path input = Files.createTempFile("piglatin-in", ".txt");
+            final Path output = Files.createTempFile("piglatin-out", ".txt");
+            try {
+                for (int i = 0; i < FIXED_TEXTS.length + texts; i++) {
+                    final String text = i < FIXED_TEXTS.length ? FIXED_TEXTS[i] : randomText(random);
+                    for (final PigLatinDialect dialect : dialects) {
+                        final String expected = stream(text, dialect);
+                        final ConversionCache cache = new ConversionCache(dialect, 16);
+                        if (!expected.equals(parallel(text, pool, dialect, null, input, output))
+                                || !expected.equals(parallel(text, pool, dialect, cache, input, output))
+                                || !expected.equals(stream(text, cache))) {
+                            failures++;
+                            System.out.println("Different output for '" + text + "'; the stream path gave '"
+                                    + expected + "'");
+                        }
+                    }
+                }
+            } finally {
+                Files.deleteIfExists(input);
+                Files.deleteIfExists(output);
+            }
+        } catch (final IOException e) {
+            System.out.println("There was a problem with the temporary files: " + e.getMessage());
+            System.exit(1);
+        } finally {
+            pool.shutdown();
+        }
+
+        System.out.println("Converted " + (FIXED_TEXTS.length + texts) + " texts with seed " + seed + " - "
+                + (failures == 0 ? "identical" : failures + " DIFFERENT"));
+        if (failures != 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Converts a text with {@link PigLatinStream}.
+     *
+     * @param text  the text
+     * @param words writes each converted word
+     * @return the converted text
+     * @throws IOException if converting fails
+     */
+    private static String stream(final String text,
+                                 final PigLatinStream.WordWriter words) throws IOException {
+        final StringWriter out = new StringWriter();
+        new PigLatinStream(16, words).convert(new StringReader(text), out);
+        return out.toString();
+    }
+
+    /**
+     * Converts a text with {@link PigLatinParallel}, through a file.
+     *
+     * @param text    the text
+     * @param pool    the pool to convert chunks on
+     * @param dialect the rules to convert words with
+     * @param cache   a cache of converted words, or null
+     * @param input   the file to write the text to
+     * @param output  the file to convert into
+     * @return the converted text
+     * @throws IOException if converting fails
+     */
+    private static String parallel(final String text,
+                                   final ForkJoinPool pool,
+                                   final PigLatinDialect dialect,
+                                   final ConversionCache cache,
+                                   final Path input,
+                                   final Path output) throws IOException {
+        Files.write(input, text.getBytes(StandardCharsets.UTF_8));
+        new PigLatinParallel(pool, CHUNK_SIZE, dialect, cache).convert(input, output);
+        return new String(Files.readAllBytes(output), StandardCharsets.UTF_8);
+    }
+
+    private static String randomText(final SplittableRandom random) {
+        final StringBuilder builder = new StringBuilder();
+        final int length = random.nextInt(MAX_TEXT_LENGTH);
+        while (builder.length() < length) {
+            builder.append(PIECES[random.nextInt(PIECES.length)]);
+        }
+        return builder.toString();
+    }
+
+}
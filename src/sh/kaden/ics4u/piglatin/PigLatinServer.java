@@ -0,0 +1,223 @@
+package sh.kaden.ics4u.piglatin;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves pig latin conversions over HTTP to other processes on the same machine.
+ * <p>
+ * A {@code POST} to {@code /convert} converts the request body, which is usually one word per line, and answers with
+ * the converted body, so a whole batch of words costs one request. The dialect is picked with a query parameter, as in
+ * {@code /convert?dialect=way}, and defaults to the classic rules. Each request is converted in memory by a
+ * {@link PigLatinStream}, so the response can be sent with its length, on a fixed pool of worker threads.
+ */
+public class PigLatinServer {
+
+    private static final int DEFAULT_PORT = 8649;
+    private static final int MAX_PORT = 65535;
+    private static final int MAX_REQUEST_BYTES = 16 << 20;
+    private static final int BUFFER_SIZE = 1 << 13;
+
+    static {
+        // without TCP_NODELAY, a small response waits on the client's delayed ACK, which caps a connection at ~20 req/s;
+        // the JDK server reads this once, when the first server is created
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    /**
+     * The command-line entrypoint for {@code PigLatinServer}.
+     *
+     * @param args the program arguments: optionally the port and the number of worker threads
+     */
+    public static void main(final String[] args) {
+        final int port = args.length > 0 ? parseArgument(args[0], "port", MAX_PORT) : DEFAULT_PORT;
+        final int threads = args.length > 1
+                ? parseArgument(args[1], "thread count", Integer.MAX_VALUE)
+                : Runtime.getRuntime().availableProcessors();
+        try {
+            final PigLatinServer server = new PigLatinServer(port, threads);
+            server.start();
+            System.out.println("Serving pig latin on http://localhost:" + server.port() + "/convert");
+        } catch (final IOException e) {
+            System.out.println("There was a problem starting the server: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Parses a whole-number program argument from 1 to {@code max}, exiting if it isn't one.
+     *
+     * @param value the argument
+     * @param name  the name of the argument, used in the error message
+     * @param max   the largest allowed value
+     * @return the argument value
+     */
+    private static int parseArgument(final String value,
+                                     final String name,
+                                     final int max) {
+        try {
+            final int parsed = Integer.parseInt(value);
+            if (parsed >= 1 && parsed <= max) {
+                return parsed;
+            }
+        } catch (final NumberFormatException e) {
+            // reported below, the same as a number out of range
+        }
+        System.out.println("'" + value + "' isn't a valid " + name + "; it must be "
+                + (max == Integer.MAX_VALUE ? "a positive number" : "from 1 to " + max));
+        System.exit(1);
+        return 0;
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Constructs {@code PigLatinServer}, bound to the loopback address.
+     *
+     * @param port    the port to listen on, or 0 for any free port
+     * @param threads the number of requests to convert at once
+     * @throws IOException if the port can't be bound
+     */
+    public PigLatinServer(final int port,
+                          final int threads) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = Executors.newFixedThreadPool(threads);
+        this.server.setExecutor(this.executor);
+        this.server.createContext("/convert", this::handleConvert);
+    }
+
+    /**
+     * Starts accepting requests.
+     */
+    public void start() {
+        this.server.start();
+    }
+
+    /**
+     * Stops accepting requests, waits up to a second for the ones in progress, and shuts the workers down.
+     */
+    public void stop() {
+        this.server.stop(1);
+        this.executor.shutdown();
+    }
+
+    /**
+     * Returns the port the server is listening on.
+     *
+     * @return the port
+     */
+    public int port() {
+        return this.server.getAddress().getPort();
+    }
+
+    /**
+     * Handles a request to {@code /convert}.
+     *
+     * @param exchange the request and response
+     * @throws IOException if reading or writing fails
+     */
+    private void handleConvert(final HttpExchange exchange) throws IOException {
+        try {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                this.sendError(exchange, 405, "Use POST with one word per line.");
+                return;
+            }
+
+            final PigLatinDialect dialect = dialectOf(exchange.getRequestURI());
+            if (dialect == null) {
+                this.sendError(exchange, 400, "Unknown dialect; try classic, way or yay.");
+                return;
+            }
+
+            final byte[] body = readBody(exchange.getRequestBody());
+            if (body == null) {
+                this.sendError(exchange, 413, "Requests are limited to " + MAX_REQUEST_BYTES + " bytes.");
+                return;
+            }
+
+            final ByteArrayOutputStream converted = new ByteArrayOutputStream(body.length + (body.length >> 2) + 16);
+            try (final Reader in = new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8);
+                 final Writer out = new OutputStreamWriter(converted, StandardCharsets.UTF_8)) {
+                new PigLatinStream(BUFFER_SIZE, dialect).convert(in, out);
+            }
+
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+            exchange.sendResponseHeaders(200, converted.size());
+            try (final OutputStream out = exchange.getResponseBody()) {
+                converted.writeTo(out);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void sendError(final HttpExchange exchange,
+                           final int status,
+                           final String message) throws IOException {
+        final byte[] bytes = (message + "\n").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (final OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Returns the dialect named by the {@code dialect} query parameter.
+     *
+     * @param uri the request uri
+     * @return the dialect, {@link PigLatinDialect#CLASSIC} if there is no parameter, or null if the name is unknown
+     */
+    private static PigLatinDialect dialectOf(final URI uri) {
+        final String query = uri.getQuery();
+        if (query == null) {
+            return PigLatinDialect.CLASSIC;
+        }
+        for (final String parameter : query.split("&")) {
+            if (parameter.startsWith("dialect=")) {
+                return PigLatinDialect.forName(parameter.substring("dialect=".length()));
+            }
+        }
+        return PigLatinDialect.CLASSIC;
+    }
+
+    /**
+     * Reads a request body, up to {@link #MAX_REQUEST_BYTES}.
+     *
+     * @param in the request body
+     * @return the bytes, or null if there were too many
+     * @throws IOException if reading fails
+     */
+    private static byte[] readBody(final InputStream in) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(BUFFER_SIZE);
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            if (bytes.size() + read > MAX_REQUEST_BYTES) {
+                return null;
+            }
+            bytes.write(buffer, 0, read);
+        }
+        return bytes.toByteArray();
+    }
+
+}
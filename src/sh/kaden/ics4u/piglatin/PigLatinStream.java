@@ -0,0 +1,176 @@
+package sh.kaden.ics4u.piglatin;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Converts whole texts to pig latin, word by word.
+ * <p>
+ * Text is read into a reusable {@code char[]} window, and each run of letters is converted by writing its slices
+ * straight to a buffered writer, so no {@link String} is created per word. Anything that isn't a letter, such as
+ * whitespace and punctuation, is copied through unchanged. A word cut off at the end of the window is moved to the
+ * front and completed by the next read.
+ */
+public class PigLatinStream {
+
+    private static final int DEFAULT_WINDOW_SIZE = 1 << 16;
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The command-line entrypoint for {@code PigLatinStream}.
+     *
+     * @param args the program arguments: optionally the input file and the output file, which default to stdin and
+     *             stdout, optionally {@code --dialect <name>}, and optionally {@code --cache <entries>} to remember
+     *             that many converted words
+     */
+    public static void main(final String[] args) {
+        final List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        final PigLatinDialect dialect = PigLatinDialect.option(arguments);
+        final ConversionCache cache = ConversionCache.option(arguments, dialect);
+        run(arguments, cache != null ? cache : dialect);
+        if (cache != null) {
+            cache.printStats();
+        }
+    }
+
+    /**
+     * Converts a file or stdin with {@code words}, printing an error and exiting if it fails.
+     *
+     * @param arguments optionally the input file and the output file, which default to stdin and stdout
+     * @param words     writes each converted word
+     */
+    static void run(final List<String> arguments,
+                    final WordWriter words) {
+        try (final Reader in = arguments.size() > 0
+                ? Files.newBufferedReader(Paths.get(arguments.get(0)), StandardCharsets.UTF_8)
+                : new InputStreamReader(System.in, StandardCharsets.UTF_8);
+             final Writer out = arguments.size() > 1
+                     ? Files.newBufferedWriter(Paths.get(arguments.get(1)), StandardCharsets.UTF_8)
+                     : new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), OUTPUT_BUFFER_SIZE)) {
+            new PigLatinStream(DEFAULT_WINDOW_SIZE, words).convert(in, out);
+        } catch (final IOException e) {
+            System.err.println("There was a problem converting the text: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private final WordWriter words;
+    private char[] window;
+
+    /**
+     * Constructs {@code PigLatinStream}.
+     *
+     * @param windowSize the initial size of the read window, which grows if a single word doesn't fit
+     * @param words      writes each converted word, such as a {@link PigLatinDialect}
+     */
+    public PigLatinStream(final int windowSize,
+                          final WordWriter words) {
+        this.words = words;
+        this.window = new char[Math.max(windowSize, 1)];
+    }
+
+    /**
+     * Constructs {@code PigLatinStream} with the {@link PigLatinDialect#CLASSIC classic} rules.
+     *
+     * @param windowSize the initial size of the read window, which grows if a single word doesn't fit
+     */
+    public PigLatinStream(final int windowSize) {
+        this(windowSize, PigLatinDialect.CLASSIC);
+    }
+
+    /**
+     * Constructs {@code PigLatinStream} with the default window size and the classic rules.
+     */
+    public PigLatinStream() {
+        this(DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Converts everything from {@code in} and writes it to {@code out}.
+     * <p>
+     * {@code out} is flushed, but neither stream is closed.
+     *
+     * @param in  the text to convert
+     * @param out where to write the converted text
+     * @throws IOException if reading or writing fails
+     */
+    public void convert(final Reader in,
+                        final Writer out) throws IOException {
+        int length = 0; // the number of chars in the window
+        boolean end = false;
+        while (!end) {
+            final int read = in.read(this.window, length, this.window.length - length);
+            if (read < 0) {
+                end = true;
+            } else {
+                length += read;
+            }
+
+            int position = 0;
+            while (position < length) {
+                if (!Character.isLetter(this.window[position])) {
+                    final int start = position;
+                    while (position < length && !Character.isLetter(this.window[position])) {
+                        position++;
+                    }
+                    out.write(this.window, start, position - start);
+                    continue;
+                }
+
+                final int start = position;
+                while (position < length && Character.isLetter(this.window[position])) {
+                    position++;
+                }
+
+                if (position == length && !end) {
+                    // the word may continue past the window; keep it for the next read
+                    position = start;
+                    break;
+                }
+                this.words.write(this.window, start, position, out);
+            }
+
+            // move the unfinished word to the front of the window, growing it if the word fills the whole window
+            final int remaining = length - position;
+            System.arraycopy(this.window, position, this.window, 0, remaining);
+            length = remaining;
+            if (length == this.window.length) {
+                this.window = Arrays.copyOf(this.window, this.window.length * 2);
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Converts a single word.
+     */
+    @FunctionalInterface
+    public interface WordWriter {
+
+        /**
+         * Writes the converted form of the word in {@code chars} from {@code start} to {@code end}.
+         *
+         * @param chars the characters
+         * @param start the index of the first letter of the word
+         * @param end   the index after the last letter of the word
+         * @param out   the writer
+         * @throws IOException if writing fails
+         */
+        void write(char[] chars,
+                   int start,
+                   int end,
+                   Writer out) throws IOException;
+
+    }
+
+}
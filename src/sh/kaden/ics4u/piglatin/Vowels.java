@@ -0,0 +1,142 @@
+package sh.kaden.ics4u.piglatin;
+
+import java.text.Normalizer;
+
+/**
+ * Classifies vowels with lookup tables instead of chains of comparisons.
+ * <p>
+ * ASCII characters are looked up in a 128-entry table. Accented Latin letters, up to the end of Latin Extended-B, are
+ * looked up in a second table built at startup by decomposing each letter and checking its base letter, so &eacute; and &Ouml;
+ * count as vowels. Anything above that is not a vowel.
+ * <p>
+ * The bulk scans look for the first vowel in blocks of {@value #BLOCK} characters. Within a block the test is
+ * branch-free arithmetic on a 32-bit mask of the vowels, ORed together, which the JIT can turn into SIMD instructions;
+ * only the block that contains a vowel is searched one character at a time.
+ */
+public final class Vowels {
+
+    private static final int BLOCK = 16;
+    private static final int VOWEL_BITS = bit('a') | bit('e') | bit('i') | bit('o') | bit('u');
+    private static final char LAST_LATIN = '\u024F'; // the end of Latin Extended-B
+    private static final boolean[] ASCII = new boolean[128];
+    private static final boolean[] LATIN = new boolean[LAST_LATIN + 1];
+
+    static {
+        for (char c = 0; c < ASCII.length; c++) {
+            ASCII[c] = asciiBit(c) != 0;
+        }
+
+        for (char c = 0; c <= LAST_LATIN; c++) {
+            if (c < ASCII.length) {
+                LATIN[c] = ASCII[c];
+            } else if (Character.isLetter(c)) {
+                final String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+                final char base = decomposed.charAt(0);
+                LATIN[c] = base < ASCII.length && ASCII[base];
+            }
+        }
+    }
+
+    private Vowels() {
+    }
+
+    /**
+     * Checks to see if {@code c} is a vowel letter.
+     *
+     * @param c the character to check
+     * @return true if vowel, false if not
+     */
+    public static boolean isVowel(final char c) {
+        if (c < ASCII.length) {
+            return ASCII[c];
+        }
+        return c <= LAST_LATIN && LATIN[c];
+    }
+
+    /**
+     * Returns the index of the first vowel in {@code chars} from {@code from} to {@code to}.
+     *
+     * @param chars the characters
+     * @param from  the index to start at
+     * @param to    the index to stop before
+     * @return the index of the first vowel, or -1 if there is none
+     */
+    public static int indexOfVowel(final char[] chars,
+                                   final int from,
+                                   final int to) {
+        int i = from;
+        for (; i + BLOCK <= to; i += BLOCK) {
+            int found = 0;
+            int high = 0;
+            for (int k = 0; k < BLOCK; k++) {
+                final char c = chars[i + k];
+                found |= asciiBit(c);
+                high |= c;
+            }
+            if (found != 0 || high >= ASCII.length) {
+                break; // the exact check below finds the vowel, including accented ones
+            }
+        }
+        return firstVowel(chars, i, to);
+    }
+
+    /**
+     * Returns the index of the first ASCII vowel in {@code bytes} from {@code from} to {@code to}.
+     * <p>
+     * Bytes above 127 are never vowels here; callers that need accented vowels in UTF-8 must decode them.
+     *
+     * @param bytes the bytes
+     * @param from  the index to start at
+     * @param to    the index to stop before
+     * @return the index of the first vowel, or -1 if there is none
+     */
+    public static int indexOfAsciiVowel(final byte[] bytes,
+                                        final int from,
+                                        final int to) {
+        int i = from;
+        for (; i + BLOCK <= to; i += BLOCK) {
+            int found = 0;
+            for (int k = 0; k < BLOCK; k++) {
+                found |= asciiBit(bytes[i + k] & 0xFF);
+            }
+            if (found != 0) {
+                break;
+            }
+        }
+        for (; i < to; i++) {
+            final int b = bytes[i];
+            if (b >= 0 && ASCII[b]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int firstVowel(final char[] chars,
+                                  final int from,
+                                  final int to) {
+        for (int i = from; i < to; i++) {
+            if (isVowel(chars[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns 1 if {@code c} is an ASCII vowel of either case, without branching.
+     *
+     * @param c the character
+     * @return 1 for a vowel, 0 otherwise
+     */
+    private static int asciiBit(final int c) {
+        final int index = (c | 0x20) - 'a'; // setting 0x20 lowercases ASCII letters
+        final int outside = (index >>> 5) | (c >>> 7); // 0 only for ASCII characters that fold into 'a'..'~'
+        return (VOWEL_BITS >>> (index & 31)) & ((outside - 1) >>> 31);
+    }
+
+    private static int bit(final char letter) {
+        return 1 << (letter - 'a');
+    }
+
+}
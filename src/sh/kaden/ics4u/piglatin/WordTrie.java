@@ -0,0 +1,151 @@
+package sh.kaden.ics4u.piglatin;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * A set of dictionary words, stored as a trie in parallel primitive arrays.
+ * <p>
+ * Every node is an index into the arrays: its letter, its first child, its next sibling, and the rank of the word that
+ * ends at it. There are no node objects, so a dictionary of a hundred thousand words takes a few megabytes, and a lookup
+ * follows array indices without hashing or allocating. Words are stored in lower case, and lookups ignore case.
+ * <p>
+ * A word's rank is the order it was added in. Word lists sorted by frequency, most common first, therefore give common
+ * words lower ranks.
+ */
+public final class WordTrie {
+
+    private static final int DEFAULT_CAPACITY = 1 << 10;
+    private static final int ROOT = 0;
+    private static final int NONE = -1;
+
+    private char[] letters; // the letter on the edge into each node
+    private int[] firstChild; // the first child of each node, or NONE
+    private int[] nextSibling; // the next child of the same parent, or NONE
+    private int[] ranks; // the rank of the word ending at each node, or NONE
+    private int nodes;
+    private int words;
+
+    /**
+     * Constructs an empty {@code WordTrie}.
+     */
+    public WordTrie() {
+        this.letters = new char[DEFAULT_CAPACITY];
+        this.firstChild = new int[DEFAULT_CAPACITY];
+        this.nextSibling = new int[DEFAULT_CAPACITY];
+        this.ranks = new int[DEFAULT_CAPACITY];
+        this.newNode('\0');
+    }
+
+    /**
+     * Loads a word list with one word per line, most common first.
+     * <p>
+     * Blank lines are skipped, and whitespace around words is ignored.
+     *
+     * @param path the word list
+     * @return the trie
+     * @throws IOException if reading fails
+     */
+    public static WordTrie load(final Path path) throws IOException {
+        final WordTrie trie = new WordTrie();
+        try (final BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                final String word = line.trim();
+                if (!word.isEmpty()) {
+                    trie.add(word);
+                }
+            }
+        }
+        return trie;
+    }
+
+    /**
+     * Adds a word, unless it is already in the trie.
+     *
+     * @param word the word
+     * @return the rank of the word
+     */
+    public int add(final CharSequence word) {
+        int node = ROOT;
+        for (int i = 0; i < word.length(); i++) {
+            final char letter = Character.toLowerCase(word.charAt(i));
+            int child = this.child(node, letter);
+            if (child == NONE) {
+                child = this.newNode(letter);
+                this.nextSibling[child] = this.firstChild[node];
+                this.firstChild[node] = child;
+            }
+            node = child;
+        }
+
+        if (this.ranks[node] == NONE) {
+            this.ranks[node] = this.words++;
+        }
+        return this.ranks[node];
+    }
+
+    /**
+     * Returns the rank of {@code word}, ignoring case.
+     *
+     * @param word the word
+     * @return the rank, or -1 if the word isn't in the trie
+     */
+    public int rank(final CharSequence word) {
+        int node = ROOT;
+        for (int i = 0; i < word.length() && node != NONE; i++) {
+            node = this.child(node, Character.toLowerCase(word.charAt(i)));
+        }
+        return node == NONE ? NONE : this.ranks[node];
+    }
+
+    /**
+     * Checks to see if {@code word} is in the trie, ignoring case.
+     *
+     * @param word the word
+     * @return true if it is, false if not
+     */
+    public boolean contains(final CharSequence word) {
+        return this.rank(word) != NONE;
+    }
+
+    /**
+     * Returns the number of words in the trie.
+     *
+     * @return the number of words
+     */
+    public int size() {
+        return this.words;
+    }
+
+    private int child(final int node,
+                      final char letter) {
+        for (int child = this.firstChild[node]; child != NONE; child = this.nextSibling[child]) {
+            if (this.letters[child] == letter) {
+                return child;
+            }
+        }
+        return NONE;
+    }
+
+    private int newNode(final char letter) {
+        if (this.nodes == this.letters.length) {
+            final int grown = this.nodes * 2;
+            this.letters = Arrays.copyOf(this.letters, grown);
+            this.firstChild = Arrays.copyOf(this.firstChild, grown);
+            this.nextSibling = Arrays.copyOf(this.nextSibling, grown);
+            this.ranks = Arrays.copyOf(this.ranks, grown);
+        }
+
+        this.letters[this.nodes] = letter;
+        this.firstChild[this.nodes] = NONE;
+        this.nextSibling[this.nodes] = NONE;
+        this.ranks[this.nodes] = NONE;
+        return this.nodes++;
+    }
+
+}
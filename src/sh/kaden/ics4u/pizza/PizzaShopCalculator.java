@@ -98,7 +98,7 @@ public class PizzaShopCalculator extends JFrame {
      * @param diameter the diameter
      * @return the base cost
      */
-    private double calculateBaseCost(final double diameter) {
+    private static double calculateBaseCost(final double diameter) {
         return diameter * MATERIAL_MULTIPLIER;
     }
 
@@ -109,7 +109,7 @@ public class PizzaShopCalculator extends JFrame {
      * @return the pizza cost
      */
     private double calculateMaterials(final double diameter) {
-        double cost = this.calculateBaseCost(diameter);
+        double cost = calculateBaseCost(diameter);
 
         for (final ToppingPanel toppingPanel : this.toppings) {
             cost = cost + toppingPanel.count() * toppingPanel.cost();
@@ -118,6 +118,26 @@ public class PizzaShopCalculator extends JFrame {
         return cost;
     }
 
+    /**
+     * Calculates the cost of a pizza's materials.
+     *
+     * @param diameter the diameter
+     * @param counts   how many of each topping are on the pizza
+     * @param costs    the cost of each topping, in the same order as {@code counts}
+     * @return the pizza cost
+     */
+    public static double calculateMaterials(final double diameter,
+                                            final int[] counts,
+                                            final double[] costs) {
+        double cost = calculateBaseCost(diameter);
+
+        for (int i = 0; i < counts.length; i++) {
+            cost = cost + counts[i] * costs[i];
+        }
+
+        return cost;
+    }
+
     /**
      * Constructs the toppings panel.
      *
@@ -281,7 +301,7 @@ public class PizzaShopCalculator extends JFrame {
             model.addRow(new Object[]{" -- " + count + " " + toppingPanel.toppingName(), COST_FORMAT.format(cost)});
         }
 
-        model.addRow(new Object[]{" -- Base cost", COST_FORMAT.format(this.calculateBaseCost(diameter))});
+        model.addRow(new Object[]{" -- Base cost", COST_FORMAT.format(calculateBaseCost(diameter))});
         model.addRow(new Object[]{"Total", COST_FORMAT.format(this.calculatePizzaCost(diameter))});
     }
 
@@ -1,29 +1,212 @@
 package sh.kaden.ics4u.volume;
 
+import sh.kaden.ics4u.geometry.Cone;
+import sh.kaden.ics4u.geometry.ConeSolver;
+import sh.kaden.ics4u.io.BatchRunner;
+import sh.kaden.ics4u.io.ColumnarFile;
+
+import java.io.IOException;
+import java.nio.DoubleBuffer;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Calculates the volume and area of a cone using a radius and height value.
  */
 public class ConeProgram {
 
+    private static final int BATCH_BLOCK_SIZE = 1 << 12;
+    private static final Scanner SCANNER = new Scanner(System.in); // shared, so buffered input isn't lost between questions
+
     /**
      * The main entrypoint.
+     * <p>
+     * With {@code --batch <input> [output] [errors]}, every row of radius and height in the input, which is either
+     * comma-separated text or a {@link ColumnarFile}, is calculated without asking anything. With {@code --sweep}
+     * followed by a from, to and step count for the radius and then the height, every cone on that grid is calculated
+     * with a {@link ConeSweep} and the smallest and largest results are printed; the full grid is also written to a
+     * columnar file if one is named last. With {@code --solve <input> [output] [errors]}, each row of the input is a
+     * target volume, and the cone with the least surface area that holds it is found with a {@link ConeSolver}, within
+     * the bounds given by {@code --min-radius}, {@code --max-radius}, {@code --min-height} and {@code --max-height}.
      *
      * @param args cli args
      */
     public static void main(final String[] args) {
+        if (args.length > 0 && args[0].equals("--batch")) {
+            runBatch(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--solve")) {
+            runSolve(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--sweep")) {
+            runSweep(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
         new ConeProgram();
     }
 
+    /**
+     * Calculates every cone in a file.
+     *
+     * @param args the input file, then optionally the output file and the error file
+     */
+    private static void runBatch(final String[] args) {
+        final double[] volumes = new double[BatchRunner.BLOCK_SIZE];
+        final double[] surfaceAreas = new double[BatchRunner.BLOCK_SIZE];
+        BatchRunner.run(args, "Usage: ConeProgram --batch <input file> [output file] [error file]", 2,
+                "line,radius,height,volume,surface_area", (lines, columns, rows, out) -> {
+                    final double[] radii = columns[0];
+                    final double[] heights = columns[1];
+                    calculate(radii, heights, volumes, surfaceAreas, 0, rows);
+                    for (int i = 0; i < rows; i++) {
+                        out.write(Long.toString(lines[i]));
+                        out.write(',');
+                        BatchRunner.writeNumber(out, radii[i]);
+                        out.write(',');
+                        BatchRunner.writeNumber(out, heights[i]);
+                        out.write(',');
+                        BatchRunner.writeNumber(out, volumes[i]);
+                        out.write(',');
+                        BatchRunner.writeNumber(out, surfaceAreas[i]);
+                        out.write('\n');
+                    }
+                });
+    }
+
+    /**
+     * Finds the best cone for every target volume in a file.
+     * <p>
+     * Each block of targets is solved across the common fork-join pool. Targets that can't be reached within the
+     * bounds are written with {@code NaN} dimensions.
+     *
+     * @param args the input file, then optionally the output file and the error file, and any bounds
+     */
+    private static void runSolve(final String[] args) {
+        final List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        final ConeSolver solver;
+        try {
+            solver = new ConeSolver(
+                    BatchRunner.option(arguments, "--min-radius", 0),
+                    BatchRunner.option(arguments, "--max-radius", Double.POSITIVE_INFINITY),
+                    BatchRunner.option(arguments, "--min-height", 0),
+                    BatchRunner.option(arguments, "--max-height", Double.POSITIVE_INFINITY));
+        } catch (final IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        final double[][] dimensions = new double[solver.dimensions()][BatchRunner.BLOCK_SIZE];
+        final double[] surfaceAreas = new double[BatchRunner.BLOCK_SIZE];
+        BatchRunner.run(arguments.toArray(new String[0]), "Usage: ConeProgram --solve <input file> [output file] "
+                        + "[error file] [--min-radius r] [--max-radius r] [--min-height h] [--max-height h]", 1,
+                "line,volume,radius,height,surface_area", (lines, columns, rows, out) -> {
+                    final double[] volumes = columns[0];
+                    final double[] radii = dimensions[0];
+                    final double[] heights = dimensions[1];
+                    solver.solve(ForkJoinPool.commonPool(), volumes, dimensions, 0, rows);
+                    Cone.surfaceAreas(radii, heights, surfaceAreas, 0, rows);
+                    for (int i = 0; i < rows; i++) {
+                        out.write(Long.toString(lines[i]));
+                        out.write(',');
+                        BatchRunner.writeNumber(out, volumes[i]);
+                        out.write(',');
+                        BatchRunner.writeNumber(out, radii[i]);
+                        out.write(',');
+                        BatchRunner.writeNumber(out, heights[i]);
+                        out.write(',');
+                        BatchRunner.writeNumber(out, surfaceAreas[i]);
+                        out.write('\n');
+                    }
+                });
+    }
+
+    /**
+     * Calculates every cone on a grid and prints the extremes.
+     *
+     * @param args the radius range and steps, the height range and steps, then optionally the output file
+     */
+    private static void runSweep(final String[] args) {
+        if (args.length < 6) {
+            System.out.println("Usage: ConeProgram --sweep <radius from> <radius to> <radius steps> "
+                    + "<height from> <height to> <height steps> [output file]");
+            System.exit(1);
+        }
+
+        final ConeSweep sweep;
+        try {
+            sweep = new ConeSweep(axis(args, 0), axis(args, 3));
+        } catch (final IllegalArgumentException e) {
+            System.out.println("That isn't a valid grid: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        final long start = System.nanoTime();
+        final ConeSweep.Result result;
+        try {
+            result = args.length > 6
+                    ? sweep.run(ForkJoinPool.commonPool(), Paths.get(args[6]))
+                    : sweep.run(ForkJoinPool.commonPool(), (ColumnarFile.Output) null);
+        } catch (final IOException e) {
+            System.err.println("There was a problem writing the file: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        final long millis = (System.nanoTime() - start) / 1_000_000;
+
+        printExtreme(sweep, "Smallest volume", result.minVolume(), result.minVolumeIndex());
+        printExtreme(sweep, "Largest volume", result.maxVolume(), result.maxVolumeIndex());
+        printExtreme(sweep, "Smallest surface area", result.minSurfaceArea(), result.minSurfaceAreaIndex());
+        printExtreme(sweep, "Largest surface area", result.maxSurfaceArea(), result.maxSurfaceAreaIndex());
+        System.err.println("Calculated " + result.cones() + " cones in " + millis + " ms.");
+    }
+
+    /**
+     * Parses the from, to and step count of a sweep axis.
+     *
+     * @param args   the arguments
+     * @param offset the index of the from value
+     * @return the axis
+     * @throws IllegalArgumentException if a value isn't a number or the axis is invalid
+     */
+    private static ConeSweep.Axis axis(final String[] args,
+                                       final int offset) {
+        return new ConeSweep.Axis(Double.parseDouble(args[offset]), Double.parseDouble(args[offset + 1]),
+                Integer.parseInt(args[offset + 2]));
+    }
+
+    /**
+     * Prints one of the extremes of a sweep and the cone it belongs to.
+     *
+     * @param sweep the sweep
+     * @param label what the value is
+     * @param value the value
+     * @param index the grid index of the cone
+     */
+    private static void printExtreme(final ConeSweep sweep,
+                                     final String label,
+                                     final double value,
+                                     final long index) {
+        System.out.println(label + ": " + value + " at radius " + sweep.radiusAt(index)
+                + ", height " + sweep.heightAt(index));
+    }
+
     /**
      * Constructs {@code ConeProgram}.
      */
     public ConeProgram() {
         final double radius = this.ask("Radius of cone");
         final double height = this.ask("Height of cone");
-        final double volume = this.volume(radius, height);
-        final double surfaceArea = this.surfaceArea(radius, height);
+        final double volume = volume(radius, height);
+        final double surfaceArea = surfaceArea(radius, height);
         System.out.printf("This cone has a volume of %.2f and a surface area of %.2f.\n", volume, surfaceArea);
     }
 
@@ -34,9 +217,9 @@ public class ConeProgram {
      * @param height the height
      * @return the volume
      */
-    public double volume(final double radius,
-                         final double height) {
-        return (Math.PI * Math.pow(radius, 2) * height) / 3;
+    public static double volume(final double radius,
+                                final double height) {
+        return Cone.volume(radius, height);
     }
 
     /**
@@ -46,12 +229,97 @@ public class ConeProgram {
      * @param height the height of the cone
      * @return the surface area
      */
-    public double surfaceArea(final double radius,
-                              final double height) {
-        final double radiusSquared = Math.pow(radius, 2);
-        final double slantSquared = radiusSquared + Math.pow(height, 2);
+    public static double surfaceArea(final double radius,
+                                     final double height) {
+        return Cone.surfaceArea(radius, height);
+    }
+
+    /**
+     * Calculates the volume and surface area of many cones at once.
+     * <p>
+     * The cones are given as parallel arrays, and the results are written to parallel arrays by the {@link Cone} array
+     * methods. The results are the same as calling {@link #volume} and {@link #surfaceArea} for each cone.
+     *
+     * @param radii        the radius of each cone
+     * @param heights      the height of each cone
+     * @param volumes      where to write the volume of each cone
+     * @param surfaceAreas where to write the surface area of each cone
+     * @param offset       the index of the first cone
+     * @param length       the number of cones
+     */
+    public static void calculate(final double[] radii,
+                                 final double[] heights,
+                                 final double[] volumes,
+                                 final double[] surfaceAreas,
+                                 final int offset,
+                                 final int length) {
+        Cone.volumes(radii, heights, volumes, offset, length);
+        Cone.surfaceAreas(radii, heights, surfaceAreas, offset, length);
+    }
+
+    /**
+     * Calculates the volume and surface area of every cone in the arrays.
+     *
+     * @param radii        the radius of each cone
+     * @param heights      the height of each cone
+     * @param volumes      where to write the volume of each cone
+     * @param surfaceAreas where to write the surface area of each cone
+     */
+    public static void calculate(final double[] radii,
+                                 final double[] heights,
+                                 final double[] volumes,
+                                 final double[] surfaceAreas) {
+        calculate(radii, heights, volumes, surfaceAreas, 0, radii.length);
+    }
+
+    /**
+     * Calculates the volume and surface area of the cones remaining in {@code radii} and {@code heights}.
+     * <p>
+     * Every buffer is read or written from its position for {@code radii.remaining()} values, and no position is
+     * changed. Buffers backed by arrays are handed to the array version; others, such as memory-mapped files, are
+     * processed in blocks through a small scratch array.
+     *
+     * @param radii        the radius of each cone
+     * @param heights      the height of each cone
+     * @param volumes      where to write the volume of each cone
+     * @param surfaceAreas where to write the surface area of each cone
+     */
+    public static void calculate(final DoubleBuffer radii,
+                                 final DoubleBuffer heights,
+                                 final DoubleBuffer volumes,
+                                 final DoubleBuffer surfaceAreas) {
+        final int count = radii.remaining();
+        if (heights.remaining() < count || volumes.remaining() < count || surfaceAreas.remaining() < count) {
+            throw new IllegalArgumentException("Every buffer needs room for " + count + " cones.");
+        }
+
+        if (radii.hasArray() && heights.hasArray() && volumes.hasArray() && surfaceAreas.hasArray()
+                && radii.arrayOffset() + radii.position() == heights.arrayOffset() + heights.position()
+                && radii.arrayOffset() + radii.position() == volumes.arrayOffset() + volumes.position()
+                && radii.arrayOffset() + radii.position() == surfaceAreas.arrayOffset() + surfaceAreas.position()) {
+            calculate(radii.array(), heights.array(), volumes.array(), surfaceAreas.array(),
+                    radii.arrayOffset() + radii.position(), count);
+            return;
+        }
 
-        return (Math.PI * radiusSquared) + Math.PI * radius * Math.sqrt(slantSquared);
+        // duplicates share the contents but have their own positions, so the callers' positions stay put
+        final DoubleBuffer radiusIn = radii.duplicate();
+        final DoubleBuffer heightIn = heights.duplicate();
+        final DoubleBuffer volumeOut = volumes.duplicate();
+        final DoubleBuffer areaOut = surfaceAreas.duplicate();
+        final int block = Math.min(count, BATCH_BLOCK_SIZE);
+        final double[] radiusBlock = new double[block];
+        final double[] heightBlock = new double[block];
+        final double[] volumeBlock = new double[block];
+        final double[] areaBlock = new double[block];
+        for (int done = 0; done < count; done += block) {
+            final int length = Math.min(block, count - done);
+            radiusIn.get(radiusBlock, 0, length);
+            heightIn.get(heightBlock, 0, length);
+            calculate(radiusBlock, heightBlock, volumeBlock, areaBlock, 0, length);
+            volumeOut.put(volumeBlock, 0, length);
+            areaOut.put(areaBlock, 0, length);
+        }
     }
 
     /**
@@ -61,10 +329,9 @@ public class ConeProgram {
      * @return the response
      */
     private double ask(final String question) {
-        final Scanner scanner = new Scanner(System.in);
         System.out.print(question + ": ");
         try {
-            return Double.parseDouble(scanner.nextLine());
+            return Double.parseDouble(SCANNER.nextLine());
         } catch (final Exception e) {
             System.out.println("Invalid input for question '" + question + "'.");
             System.exit(1);
@@ -0,0 +1,413 @@
+package sh.kaden.ics4u.volume;
+
+import sh.kaden.ics4u.geometry.Cone;
+import sh.kaden.ics4u.io.ColumnarFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Calculates the volume and surface area of every cone on a grid of radii and heights.
+ * <p>
+ * Each row of the grid is one radius and each column one height. Rows are split across a fork-join pool, and each row
+ * is calculated in blocks with the {@link Cone} array methods, so the grid is never held in memory: it is reduced on
+ * the fly to a {@link Result}, and optionally also written to a {@link ColumnarFile} with a volume column and a surface
+ * area column, where the cone at row {@code r} and column {@code c} is at index {@code r * heights + c}.
+ */
+public final class ConeSweep {
+
+    private static final int BLOCK_SIZE = 1 << 12; // cones calculated at once within a row
+    private static final long LEAF_CONES = 1 << 16; // stop splitting rows below this many cones
+
+    private final Axis radii;
+    private final Axis heights;
+
+    /**
+     * Constructs {@code ConeSweep}.
+     *
+     * @param radii   the radii, one per row
+     * @param heights the heights, one per column
+     */
+    public ConeSweep(final Axis radii,
+                     final Axis heights) {
+        this.radii = radii;
+        this.heights = heights;
+    }
+
+    /**
+     * Returns the number of cones on the grid.
+     *
+     * @return the cone count
+     */
+    public long size() {
+        return (long) this.radii.steps() * this.heights.steps();
+    }
+
+    /**
+     * Calculates every cone on the grid.
+     *
+     * @param pool   the pool to split the rows across
+     * @param output the file to write each volume and surface area to, or null to only reduce them
+     * @return the smallest and largest results and where they are
+     * @throws IOException if writing the file fails
+     */
+    public Result run(final ForkJoinPool pool,
+                      final ColumnarFile.Output output) throws IOException {
+        final double[] heightValues = new double[this.heights.steps()];
+        for (int column = 0; column < heightValues.length; column++) {
+            heightValues[column] = this.heights.value(column);
+        }
+
+        try {
+            return pool.invoke(new RowTask(heightValues, output, 0, this.radii.steps()));
+        } catch (final UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Calculates every cone on the grid, writing the results to a new columnar file.
+     *
+     * @param pool the pool to split the rows across
+     * @param path the file to write
+     * @return the smallest and largest results and where they are
+     * @throws IOException if writing the file fails
+     */
+    public Result run(final ForkJoinPool pool,
+                      final Path path) throws IOException {
+        try (final ColumnarFile.Output output = ColumnarFile.create(path, 2, this.size())) {
+            return this.run(pool, output);
+        }
+    }
+
+    /**
+     * Returns the radius of the cone at a grid index.
+     *
+     * @param index the index, {@code row * heights + column}
+     * @return the radius
+     */
+    public double radiusAt(final long index) {
+        return this.radii.value((int) (index / this.heights.steps()));
+    }
+
+    /**
+     * Returns the height of the cone at a grid index.
+     *
+     * @param index the index, {@code row * heights + column}
+     * @return the height
+     */
+    public double heightAt(final long index) {
+        return this.heights.value((int) (index % this.heights.steps()));
+    }
+
+    /**
+     * Calculates a range of rows, splitting it in half until it is small enough to do directly.
+     */
+    private final class RowTask extends RecursiveTask<Result> {
+
+        private final double[] heightValues;
+        private final ColumnarFile.Output output;
+        private final int from;
+        private final int to;
+
+        /**
+         * Constructs {@code RowTask}.
+         *
+         * @param heightValues the height of each column
+         * @param output       the file to write to, or null
+         * @param from         the first row
+         * @param to           the row after the last row
+         */
+        RowTask(final double[] heightValues,
+                final ColumnarFile.Output output,
+                final int from,
+                final int to) {
+            this.heightValues = heightValues;
+            this.output = output;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Result compute() {
+            final int rows = this.to - this.from;
+            if (rows > 1 && (long) rows * this.heightValues.length > LEAF_CONES) {
+                final int middle = this.from + rows / 2;
+                final RowTask left = new RowTask(this.heightValues, this.output, this.from, middle);
+                final RowTask right = new RowTask(this.heightValues, this.output, middle, this.to);
+                right.fork();
+                final Result result = left.compute();
+                result.merge(right.join());
+                return result;
+            }
+
+            try {
+                return this.computeDirectly();
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Calculates the rows one block at a time.
+         *
+         * @return the reduced results of the rows
+         * @throws IOException if writing the file fails
+         */
+        private Result computeDirectly() throws IOException {
+            final int columns = this.heightValues.length;
+            final int block = Math.min(BLOCK_SIZE, columns);
+            final double[] radiusBlock = new double[block];
+            final double[] heightBlock = columns == block ? this.heightValues : new double[block]; // copy only if split
+            final double[] volumes = new double[block];
+            final double[] surfaceAreas = new double[block];
+            final Result result = new Result();
+
+            for (int row = this.from; row < this.to; row++) {
+                Arrays.fill(radiusBlock, ConeSweep.this.radii.value(row));
+                for (int column = 0; column < columns; column += block) {
+                    final int length = Math.min(block, columns - column);
+                    if (heightBlock != this.heightValues) {
+                        System.arraycopy(this.heightValues, column, heightBlock, 0, length);
+                    }
+                    Cone.volumes(radiusBlock, heightBlock, volumes, 0, length);
+                    Cone.surfaceAreas(radiusBlock, heightBlock, surfaceAreas, 0, length);
+
+                    final long index = (long) row * columns + column;
+                    result.add(index, volumes, surfaceAreas, length);
+                    if (this.output != null) {
+                        this.output.write(0, index, volumes, 0, length);
+                        this.output.write(1, index, surfaceAreas, 0, length);
+                    }
+                }
+            }
+            return result;
+        }
+
+    }
+
+    /**
+     * An evenly spaced run of values, including both ends.
+     */
+    public static final class Axis {
+
+        private final double from;
+        private final double to;
+        private final int steps;
+
+        /**
+         * Constructs {@code Axis}.
+         *
+         * @param from  the first value
+         * @param to    the last value
+         * @param steps the number of values; with one, only {@code from} is used
+         */
+        public Axis(final double from,
+                    final double to,
+                    final int steps) {
+            if (!Double.isFinite(from) || !Double.isFinite(to)) {
+                throw new IllegalArgumentException("The range " + from + " to " + to + " is not finite.");
+            }
+            if (steps < 1) {
+                throw new IllegalArgumentException("There must be at least one step, not " + steps + ".");
+            }
+
+            this.from = from;
+            this.to = to;
+            this.steps = steps;
+        }
+
+        /**
+         * Returns a value on the axis.
+         *
+         * @param step the step, from zero
+         * @return the value
+         */
+        public double value(final int step) {
+            if (this.steps == 1) {
+                return this.from;
+            }
+            return this.from + (this.to - this.from) * step / (this.steps - 1);
+        }
+
+        /**
+         * Returns the number of values.
+         *
+         * @return the step count
+         */
+        public int steps() {
+            return this.steps;
+        }
+
+        @Override
+        public String toString() {
+            return this.from + " to " + this.to + " in " + this.steps + " steps";
+        }
+
+    }
+
+    /**
+     * The smallest and largest volume and surface area on a grid, and the index of the cone with each.
+     * <p>
+     * When several cones tie, the one with the lowest index is kept.
+     */
+    public static final class Result {
+
+        private long cones;
+        private double minVolume = Double.POSITIVE_INFINITY;
+        private double maxVolume = Double.NEGATIVE_INFINITY;
+        private double minSurfaceArea = Double.POSITIVE_INFINITY;
+        private double maxSurfaceArea = Double.NEGATIVE_INFINITY;
+        private long minVolumeIndex = -1;
+        private long maxVolumeIndex = -1;
+        private long minSurfaceAreaIndex = -1;
+        private long maxSurfaceAreaIndex = -1;
+
+        /**
+         * Adds a block of results.
+         *
+         * @param first        the grid index of the first result
+         * @param volumes      the volumes
+         * @param surfaceAreas the surface areas
+         * @param length       the number of results
+         */
+        void add(final long first,
+                 final double[] volumes,
+                 final double[] surfaceAreas,
+                 final int length) {
+            for (int i = 0; i < length; i++) {
+                final double volume = volumes[i];
+                final double surfaceArea = surfaceAreas[i];
+                if (volume < this.minVolume) {
+                    this.minVolume = volume;
+                    this.minVolumeIndex = first + i;
+                }
+                if (volume > this.maxVolume) {
+                    this.maxVolume = volume;
+                    this.maxVolumeIndex = first + i;
+                }
+                if (surfaceArea < this.minSurfaceArea) {
+                    this.minSurfaceArea = surfaceArea;
+                    this.minSurfaceAreaIndex = first + i;
+                }
+                if (surfaceArea > this.maxSurfaceArea) {
+                    this.maxSurfaceArea = surfaceArea;
+                    this.maxSurfaceAreaIndex = first + i;
+                }
+            }
+            this.cones += length;
+        }
+
+        /**
+         * Adds the results of a later part of the grid.
+         *
+         * @param other the results of rows after these
+         */
+        void merge(final Result other) {
+            if (other.minVolume < this.minVolume) {
+                this.minVolume = other.minVolume;
+                this.minVolumeIndex = other.minVolumeIndex;
+            }
+            if (other.maxVolume > this.maxVolume) {
+                this.maxVolume = other.maxVolume;
+                this.maxVolumeIndex = other.maxVolumeIndex;
+            }
+            if (other.minSurfaceArea < this.minSurfaceArea) {
+                this.minSurfaceArea = other.minSurfaceArea;
+                this.minSurfaceAreaIndex = other.minSurfaceAreaIndex;
+            }
+            if (other.maxSurfaceArea > this.maxSurfaceArea) {
+                this.maxSurfaceArea = other.maxSurfaceArea;
+                this.maxSurfaceAreaIndex = other.maxSurfaceAreaIndex;
+            }
+            this.cones += other.cones;
+        }
+
+        /**
+         * Returns the number of cones calculated.
+         *
+         * @return the cone count
+         */
+        public long cones() {
+            return this.cones;
+        }
+
+        /**
+         * Returns the smallest volume.
+         *
+         * @return the volume
+         */
+        public double minVolume() {
+            return this.minVolume;
+        }
+
+        /**
+         * Returns the largest volume.
+         *
+         * @return the volume
+         */
+        public double maxVolume() {
+            return this.maxVolume;
+        }
+
+        /**
+         * Returns the smallest surface area.
+         *
+         * @return the surface area
+         */
+        public double minSurfaceArea() {
+            return this.minSurfaceArea;
+        }
+
+        /**
+         * Returns the largest surface area.
+         *
+         * @return the surface area
+         */
+        public double maxSurfaceArea() {
+            return this.maxSurfaceArea;
+        }
+
+        /**
+         * Returns the grid index of the cone with the smallest volume.
+         *
+         * @return the index, or -1 if the grid was empty
+         */
+        public long minVolumeIndex() {
+            return this.minVolumeIndex;
+        }
+
+        /**
+         * Returns the grid index of the cone with the largest volume.
+         *
+         * @return the index, or -1 if the grid was empty
+         */
+        public long maxVolumeIndex() {
+            return this.maxVolumeIndex;
+        }
+
+        /**
+         * Returns the grid index of the cone with the smallest surface area.
+         *
+         * @return the index, or -1 if the grid was empty
+         */
+        public long minSurfaceAreaIndex() {
+            return this.minSurfaceAreaIndex;
+        }
+
+        /**
+         * Returns the grid index of the cone with the largest surface area.
+         *
+         * @return the index, or -1 if the grid was empty
+         */
+        public long maxSurfaceAreaIndex() {
+            return this.maxSurfaceAreaIndex;
+        }
+
+    }
+
+}